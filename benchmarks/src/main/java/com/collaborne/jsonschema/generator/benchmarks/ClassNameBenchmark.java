@@ -0,0 +1,88 @@
+/**
+ * Copyright (C) 2015 Collaborne B.V. (opensource@collaborne.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.collaborne.jsonschema.generator.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.collaborne.jsonschema.generator.java.ClassName;
+
+/**
+ * Operations on {@link ClassName}, which is used as key in most of the generator state.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClassNameBenchmark {
+	private static final String SIMPLE = "com.example.benchmark.Simple";
+	private static final String GENERIC = "java.util.Map<java.lang.String, java.util.List<com.example.benchmark.Simple>>";
+
+	private ClassName simple;
+	private ClassName simpleCopy;
+	private ClassName generic;
+	private ClassName genericCopy;
+
+	@Setup
+	public void setUp() {
+		simple = ClassName.parse(SIMPLE);
+		simpleCopy = ClassName.parse(SIMPLE);
+		generic = ClassName.parse(GENERIC);
+		genericCopy = ClassName.parse(GENERIC);
+	}
+
+	@Benchmark
+	public ClassName parseSimple() {
+		return ClassName.parse(SIMPLE);
+	}
+
+	@Benchmark
+	public ClassName parseGeneric() {
+		return ClassName.parse(GENERIC);
+	}
+
+	@Benchmark
+	public int hashCodeSimple() {
+		return simple.hashCode();
+	}
+
+	@Benchmark
+	public int hashCodeGeneric() {
+		return generic.hashCode();
+	}
+
+	@Benchmark
+	public boolean equalsSimple() {
+		return simple.equals(simpleCopy);
+	}
+
+	@Benchmark
+	public boolean equalsGeneric() {
+		return generic.equals(genericCopy);
+	}
+}
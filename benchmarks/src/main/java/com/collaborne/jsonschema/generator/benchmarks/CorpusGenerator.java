@@ -0,0 +1,258 @@
+/**
+ * Copyright (C) 2015 Collaborne B.V. (opensource@collaborne.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.collaborne.jsonschema.generator.benchmarks;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import com.collaborne.jsonschema.generator.model.Mappings;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.fge.jackson.JacksonUtils;
+
+/**
+ * Generator for a reproducible corpus of schema files.
+ *
+ * The corpus is split into modules, with one mapping file per module that provides the default package name. Each schema
+ * is an object with scalar properties, enums, arrays, {@code additionalProperties} maps and types in {@code definitions},
+ * and references definitions in other schemas. References only point to schemas with a lower index, so the corpus never
+ * contains recursive types.
+ */
+public class CorpusGenerator {
+	/** Result of generating a corpus */
+	public static class Corpus {
+		private final Path baseDirectory;
+		private final URI rootUri;
+		private final List<Path> schemaFiles;
+		private final List<Path> mappingFiles;
+
+		public Corpus(Path baseDirectory, URI rootUri, List<Path> schemaFiles, List<Path> mappingFiles) {
+			this.baseDirectory = baseDirectory;
+			this.rootUri = rootUri;
+			this.schemaFiles = Collections.unmodifiableList(schemaFiles);
+			this.mappingFiles = Collections.unmodifiableList(mappingFiles);
+		}
+
+		public Path getBaseDirectory() {
+			return baseDirectory;
+		}
+
+		public URI getRootUri() {
+			return rootUri;
+		}
+
+		public List<Path> getSchemaFiles() {
+			return schemaFiles;
+		}
+
+		public List<Path> getMappingFiles() {
+			return mappingFiles;
+		}
+	}
+
+	public static final URI DEFAULT_ROOT_URI = URI.create("http://example.com/corpus/");
+
+	private static final JsonNodeFactory FACTORY = JsonNodeFactory.instance;
+	private static final int SCHEMAS_PER_MODULE = 100;
+	private static final int DEFINITIONS_PER_SCHEMA = 3;
+
+	private final ObjectMapper objectMapper = JacksonUtils.newMapper();
+	private final URI rootUri;
+	private final long seed;
+
+	public CorpusGenerator(URI rootUri, long seed) {
+		this.rootUri = rootUri;
+		this.seed = seed;
+	}
+
+	/**
+	 * Write a corpus of {@code schemaCount} schemas into {@code baseDirectory}.
+	 *
+	 * The same seed and count always produce the same corpus.
+	 *
+	 * @param baseDirectory
+	 * @param schemaCount
+	 * @return
+	 * @throws IOException
+	 */
+	public Corpus generate(Path baseDirectory, int schemaCount) throws IOException {
+		Random random = new Random(seed);
+		List<Path> schemaFiles = new ArrayList<>(schemaCount);
+		List<Path> mappingFiles = new ArrayList<>();
+		for (int i = 0; i < schemaCount; i++) {
+			int module = i / SCHEMAS_PER_MODULE;
+			Path moduleDirectory = baseDirectory.resolve(getModuleName(module));
+			if (i % SCHEMAS_PER_MODULE == 0) {
+				Files.createDirectories(moduleDirectory);
+				mappingFiles.add(writeMappings(baseDirectory, module));
+			}
+
+			Path schemaFile = moduleDirectory.resolve(getSchemaFileName(i));
+			Files.write(schemaFile, objectMapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(createSchema(random, i)));
+			schemaFiles.add(schemaFile);
+		}
+		return new Corpus(baseDirectory, rootUri, schemaFiles, mappingFiles);
+	}
+
+	private Path writeMappings(Path baseDirectory, int module) throws IOException {
+		Mappings mappings = new Mappings();
+		mappings.setBaseUri(rootUri.resolve(getModuleName(module) + "/"));
+		mappings.setDefaultPackageName("com.example.corpus." + getModuleName(module));
+		Path mappingFile = baseDirectory.resolve(getModuleName(module) + "-mappings.json");
+		Files.write(mappingFile, objectMapper.writeValueAsBytes(mappings));
+		return mappingFile;
+	}
+
+	private ObjectNode createSchema(Random random, int index) {
+		ObjectNode schema = FACTORY.objectNode();
+		schema.put("$schema", "http://json-schema.org/draft-04/schema#");
+		schema.put("type", "object");
+
+		ObjectNode definitions = FACTORY.objectNode();
+		for (int i = 0; i < DEFINITIONS_PER_SCHEMA; i++) {
+			definitions.set("item" + i, createObject(random, index, 2 + random.nextInt(6)));
+		}
+		schema.set("definitions", definitions);
+
+		ObjectNode properties = createProperties(random, index, 5 + random.nextInt(15), true);
+		properties.set("items", createArray(createReference(random, index, true)));
+		ObjectNode map = FACTORY.objectNode();
+		map.put("type", "object");
+		map.set("additionalProperties", createReference(random, index, true));
+		properties.set("itemsById", map);
+		schema.set("properties", properties);
+		return schema;
+	}
+
+	private ObjectNode createObject(Random random, int index, int propertyCount) {
+		ObjectNode object = FACTORY.objectNode();
+		object.put("type", "object");
+		object.set("properties", createProperties(random, index, propertyCount, false));
+		return object;
+	}
+
+	private ObjectNode createProperties(Random random, int index, int propertyCount, boolean allowLocalReferences) {
+		ObjectNode properties = FACTORY.objectNode();
+		for (int i = 0; i < propertyCount; i++) {
+			ObjectNode property;
+			switch (random.nextInt(6)) {
+			case 0:
+				property = createType("integer");
+				break;
+			case 1:
+				property = createType("boolean");
+				break;
+			case 2:
+				property = createEnum(random);
+				break;
+			case 3:
+				property = createArray(createType("string"));
+				break;
+			case 4:
+				if (allowLocalReferences || index > 0) {
+					property = createReference(random, index, allowLocalReferences);
+				} else {
+					property = createType("string");
+				}
+				break;
+			default:
+				property = createType("string");
+				break;
+			}
+			properties.set("property" + i, property);
+		}
+		return properties;
+	}
+
+	private ObjectNode createEnum(Random random) {
+		ObjectNode schema = createType("string");
+		ArrayNode values = FACTORY.arrayNode();
+		int valueCount = 2 + random.nextInt(20);
+		for (int i = 0; i < valueCount; i++) {
+			values.add("value-" + i);
+		}
+		schema.set("enum", values);
+		return schema;
+	}
+
+	private ObjectNode createArray(ObjectNode items) {
+		ObjectNode schema = createType("array");
+		schema.set("items", items);
+		return schema;
+	}
+
+	/**
+	 * Create a reference to a definition in an earlier schema, or in this schema if {@code allowLocal} is set.
+	 *
+	 * Definitions must not reference definitions of the same schema, as that could create cycles.
+	 *
+	 * @param random
+	 * @param index index of the referencing schema
+	 * @param allowLocal
+	 * @return
+	 */
+	private ObjectNode createReference(Random random, int index, boolean allowLocal) {
+		int targetIndex;
+		if (allowLocal) {
+			targetIndex = index - random.nextInt(Math.min(index, 50) + 1);
+		} else {
+			targetIndex = index - 1 - random.nextInt(Math.min(index, 50));
+		}
+		String target;
+		if (targetIndex == index) {
+			target = "";
+		} else {
+			target = "../" + getModuleName(targetIndex / SCHEMAS_PER_MODULE) + "/" + getSchemaFileName(targetIndex);
+		}
+		ObjectNode reference = FACTORY.objectNode();
+		reference.put("$ref", target + "#/definitions/item" + random.nextInt(DEFINITIONS_PER_SCHEMA));
+		return reference;
+	}
+
+	private static ObjectNode createType(String type) {
+		ObjectNode schema = FACTORY.objectNode();
+		schema.put("type", type);
+		return schema;
+	}
+
+	private static String getModuleName(int module) {
+		return String.format("module%03d", module);
+	}
+
+	private static String getSchemaFileName(int index) {
+		return String.format("schema%05d.json", index);
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.err.println("Usage: CorpusGenerator DIRECTORY SCHEMA-COUNT [SEED]");
+			System.exit(1);
+		}
+
+		long seed = args.length > 2 ? Long.parseLong(args[2]) : 0;
+		Corpus corpus = new CorpusGenerator(DEFAULT_ROOT_URI, seed).generate(Paths.get(args[0]), Integer.parseInt(args[1]));
+		System.out.println("Generated " + corpus.getSchemaFiles().size() + " schemas in " + corpus.getBaseDirectory());
+	}
+}
@@ -0,0 +1,73 @@
+/**
+ * Copyright (C) 2015 Collaborne B.V. (opensource@collaborne.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.collaborne.jsonschema.generator.benchmarks;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.collaborne.jsonschema.generator.AbstractGenerator;
+import com.collaborne.jsonschema.generator.pojo.PojoGenerator;
+import com.google.inject.Guice;
+
+/**
+ * Resolve the default package of a nested anonymous type, with package names registered for some of the directories.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DefaultPackageNameBenchmark {
+	/** Number of JSON pointer steps in the type */
+	@Param({ "2", "10", "50" })
+	public int depth;
+
+	private AbstractGenerator generator;
+	private URI type;
+
+	@Setup
+	public void setUp() {
+		generator = Guice.createInjector().getInstance(PojoGenerator.class);
+		for (int i = 0; i < 100; i++) {
+			generator.addDefaultPackageName(URI.create("http://example.com/schemas/module" + i + "/"), "com.example.module" + i);
+		}
+		generator.addDefaultPackageName(URI.create("http://example.com/schemas/"), "com.example");
+
+		StringBuilder fragment = new StringBuilder();
+		for (int i = 0; i < depth; i++) {
+			fragment.append(i % 2 == 0 ? "/properties" : "/property" + i);
+		}
+		type = URI.create("http://example.com/schemas/module42/nested/type.json#" + fragment);
+	}
+
+	@Benchmark
+	public String getDefaultPackageName() {
+		return generator.getDefaultPackageName(type);
+	}
+}
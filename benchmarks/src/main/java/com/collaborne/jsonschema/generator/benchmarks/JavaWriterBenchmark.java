@@ -0,0 +1,121 @@
+/**
+ * Copyright (C) 2015 Collaborne B.V. (opensource@collaborne.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.collaborne.jsonschema.generator.benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.collaborne.jsonschema.generator.java.ClassName;
+import com.collaborne.jsonschema.generator.java.JavaWriter;
+import com.collaborne.jsonschema.generator.java.Kind;
+import com.collaborne.jsonschema.generator.java.Visibility;
+
+/**
+ * Emit a bean class with {@code fieldCount} properties through a {@link JavaWriter}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JavaWriterBenchmark {
+	/** {@link Writer} that only counts the characters written */
+	private static class CountingWriter extends Writer {
+		private long count;
+
+		@Override
+		public void write(char[] cbuf, int off, int len) {
+			count += len;
+		}
+
+		@Override
+		public void flush() {
+			// Nothing to flush
+		}
+
+		@Override
+		public void close() {
+			// Nothing to close
+		}
+	}
+
+	@Param({ "10", "100" })
+	public int fieldCount;
+
+	private ClassName className;
+	private ClassName[] fieldClassNames;
+	private String[] fieldNames;
+	private String[] getterNames;
+	private String[] setterNames;
+
+	@Setup
+	public void setUp() {
+		className = new ClassName("com.example.benchmark", "Bean");
+		ClassName[] types = { ClassName.create(String.class), ClassName.create(Integer.class), ClassName.parse("java.util.List<java.lang.String>"), new ClassName("com.example.benchmark.other", "Other") };
+		fieldClassNames = new ClassName[fieldCount];
+		fieldNames = new String[fieldCount];
+		getterNames = new String[fieldCount];
+		setterNames = new String[fieldCount];
+		for (int i = 0; i < fieldCount; i++) {
+			fieldClassNames[i] = types[i % types.length];
+			fieldNames[i] = "field" + i;
+			getterNames[i] = "getField" + i;
+			setterNames[i] = "setField" + i;
+		}
+	}
+
+	@Benchmark
+	public long writeClass() throws IOException {
+		CountingWriter out = new CountingWriter();
+		try (JavaWriter writer = new JavaWriter(new BufferedWriter(out))) {
+			writer.writePackage(className);
+			for (ClassName fieldClassName : fieldClassNames) {
+				writer.writeImport(fieldClassName);
+			}
+			writer.writeClassStart(className, null, Collections.emptyList(), Kind.CLASS, Visibility.PUBLIC);
+			for (int i = 0; i < fieldCount; i++) {
+				writer.writeField(Visibility.PRIVATE, fieldClassNames[i], fieldNames[i]);
+			}
+			for (int i = 0; i < fieldCount; i++) {
+				writer.writeMethodBodyStart(Visibility.PUBLIC, fieldClassNames[i], getterNames[i]);
+				writer.writeCode("return " + fieldNames[i] + ";");
+				writer.writeMethodBodyEnd();
+
+				writer.writeMethodBodyStart(Visibility.PUBLIC, ClassName.VOID, setterNames[i], fieldClassNames[i], "value");
+				writer.writeCode("this." + fieldNames[i] + " = value;");
+				writer.writeMethodBodyEnd();
+			}
+			writer.writeClassEnd();
+		}
+		return out.count;
+	}
+}
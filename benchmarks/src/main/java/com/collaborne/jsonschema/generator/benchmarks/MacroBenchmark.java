@@ -0,0 +1,260 @@
+/**
+ * Copyright (C) 2015 Collaborne B.V. (opensource@collaborne.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.collaborne.jsonschema.generator.benchmarks;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.collaborne.jsonschema.generator.CodeGenerationException;
+import com.collaborne.jsonschema.generator.benchmarks.CorpusGenerator.Corpus;
+import com.collaborne.jsonschema.generator.driver.GeneratorDriver;
+import com.collaborne.jsonschema.generator.pojo.PojoGenerator;
+import com.github.fge.jsonschema.core.load.SchemaLoader;
+import com.google.inject.Guice;
+
+/**
+ * End-to-end run of the generator over a corpus, in the same way as the command line.
+ */
+public class MacroBenchmark {
+	/** Measurements of a single run */
+	public static class Result {
+		private final long wallTimeMillis;
+		private final long peakHeapBytes;
+		private final long allocatedBytes;
+		private final int writtenFiles;
+
+		public Result(long wallTimeMillis, long peakHeapBytes, long allocatedBytes, int writtenFiles) {
+			this.wallTimeMillis = wallTimeMillis;
+			this.peakHeapBytes = peakHeapBytes;
+			this.allocatedBytes = allocatedBytes;
+			this.writtenFiles = writtenFiles;
+		}
+
+		public long getWallTimeMillis() {
+			return wallTimeMillis;
+		}
+
+		/**
+		 * Get the sum of the peak usages of the heap memory pools.
+		 *
+		 * @return
+		 */
+		public long getPeakHeapBytes() {
+			return peakHeapBytes;
+		}
+
+		/**
+		 * Get the bytes allocated by all threads during the run, or -1 if the JVM cannot measure that.
+		 *
+		 * @return
+		 */
+		public long getAllocatedBytes() {
+			return allocatedBytes;
+		}
+
+		public int getWrittenFiles() {
+			return writtenFiles;
+		}
+
+		public double getAllocationRate() {
+			return allocatedBytes < 0 ? -1 : allocatedBytes * 1000.0 / Math.max(wallTimeMillis, 1);
+		}
+
+		public double getFilesPerSecond() {
+			return writtenFiles * 1000.0 / Math.max(wallTimeMillis, 1);
+		}
+
+		@Override
+		public String toString() {
+			return String.format("wall time %d ms, peak heap %.1f MiB, allocation rate %.1f MiB/s, %d files written (%.1f files/s)",
+					wallTimeMillis, peakHeapBytes / 1048576.0, getAllocationRate() / 1048576.0, writtenFiles, getFilesPerSecond());
+		}
+	}
+
+	/**
+	 * Sampler for the allocated bytes of all threads.
+	 *
+	 * The JVM only reports allocations of live threads, so threads are sampled periodically to also catch those of
+	 * worker threads that finish before the run does.
+	 */
+	private static class AllocationSampler extends Thread {
+		private static final long SAMPLE_INTERVAL_MILLIS = 5;
+
+		private final com.sun.management.ThreadMXBean threadMXBean;
+		private final Map<Long, Long> baseline = new HashMap<>();
+		private final Map<Long, Long> latest = new HashMap<>();
+		private volatile boolean running = true;
+
+		public AllocationSampler(com.sun.management.ThreadMXBean threadMXBean) {
+			super("allocation-sampler");
+			setDaemon(true);
+			this.threadMXBean = threadMXBean;
+			sample(baseline);
+		}
+
+		@Override
+		public void run() {
+			while (running) {
+				sample(latest);
+				try {
+					Thread.sleep(SAMPLE_INTERVAL_MILLIS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+
+		public long finish() throws InterruptedException {
+			running = false;
+			join();
+			sample(latest);
+
+			long allocatedBytes = 0;
+			for (Map.Entry<Long, Long> entry : latest.entrySet()) {
+				allocatedBytes += entry.getValue() - baseline.getOrDefault(entry.getKey(), 0L);
+			}
+			return allocatedBytes;
+		}
+
+		private synchronized void sample(Map<Long, Long> target) {
+			long[] threadIds = threadMXBean.getAllThreadIds();
+			long[] allocatedBytes = threadMXBean.getThreadAllocatedBytes(threadIds);
+			for (int i = 0; i < threadIds.length; i++) {
+				if (allocatedBytes[i] >= 0) {
+					target.put(threadIds[i], allocatedBytes[i]);
+				}
+			}
+		}
+	}
+
+	private final int parallelism;
+
+	public MacroBenchmark(int parallelism) {
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Generate the types of all schemas in {@code corpus} into {@code outputDirectory}.
+	 *
+	 * @param corpus
+	 * @param outputDirectory
+	 * @return the measurements
+	 * @throws IOException
+	 * @throws CodeGenerationException
+	 */
+	public Result run(Corpus corpus, Path outputDirectory) throws IOException, CodeGenerationException {
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				pool.resetPeakUsage();
+			}
+		}
+		AllocationSampler allocationSampler = null;
+		ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+		if (threadMXBean instanceof com.sun.management.ThreadMXBean && ((com.sun.management.ThreadMXBean) threadMXBean).isThreadAllocatedMemorySupported()) {
+			allocationSampler = new AllocationSampler((com.sun.management.ThreadMXBean) threadMXBean);
+			allocationSampler.start();
+		}
+
+		long startTime = System.nanoTime();
+		PojoGenerator generator = Guice.createInjector().getInstance(PojoGenerator.class);
+		generator.setFeature(PojoGenerator.FEATURE_IGNORE_MISSING_TYPES, Boolean.TRUE);
+		generator.setOutputDirectory(outputDirectory);
+
+		GeneratorDriver driver = new GeneratorDriver(generator);
+		driver.setParallelism(parallelism);
+		for (Path mappingFile : corpus.getMappingFiles()) {
+			driver.addMappings(mappingFile);
+		}
+
+		SchemaLoader schemas = driver.createSchemaLoader(corpus.getRootUri(), corpus.getBaseDirectory(), corpus.getSchemaFiles());
+		generator.setSchemaLoader(schemas);
+
+		Set<URI> types = driver.getInitialTypes(corpus.getRootUri(), corpus.getBaseDirectory(), corpus.getSchemaFiles());
+		driver.generate(types);
+		generator.finish();
+		long wallTimeMillis = (System.nanoTime() - startTime) / 1000000;
+
+		long allocatedBytes = -1;
+		if (allocationSampler != null) {
+			try {
+				allocatedBytes = allocationSampler.finish();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		long peakHeapBytes = 0;
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				peakHeapBytes += pool.getPeakUsage().getUsed();
+			}
+		}
+		return new Result(wallTimeMillis, peakHeapBytes, allocatedBytes, generator.getWrittenFileCount());
+	}
+
+	public static void main(String[] args) throws IOException, CodeGenerationException {
+		int schemaCount = 10000;
+		int parallelism = Runtime.getRuntime().availableProcessors();
+		int iterations = 3;
+		long seed = 0;
+		Path corpusDirectory = null;
+		Path outputDirectory = null;
+		for (int i = 0; i < args.length; i++) {
+			if ("--help".equals(args[i]) || "-h".equals(args[i])) {
+				System.out.println("Usage: MacroBenchmark [-h|--help] [--schemas COUNT] [--seed SEED] [--parallelism THREADS] [--iterations COUNT] [--corpus-directory DIRECTORY] [--output-directory DIRECTORY]");
+				System.exit(0);
+			} else if ("--schemas".equals(args[i])) {
+				schemaCount = Integer.parseInt(args[++i]);
+			} else if ("--seed".equals(args[i])) {
+				seed = Long.parseLong(args[++i]);
+			} else if ("--parallelism".equals(args[i])) {
+				parallelism = Integer.parseInt(args[++i]);
+			} else if ("--iterations".equals(args[i])) {
+				iterations = Integer.parseInt(args[++i]);
+			} else if ("--corpus-directory".equals(args[i])) {
+				corpusDirectory = Paths.get(args[++i]);
+			} else if ("--output-directory".equals(args[i])) {
+				outputDirectory = Paths.get(args[++i]);
+			} else {
+				System.err.println("Unknown argument " + args[i]);
+				System.exit(1);
+			}
+		}
+
+		if (corpusDirectory == null) {
+			corpusDirectory = Files.createTempDirectory("corpus");
+		}
+		Corpus corpus = new CorpusGenerator(CorpusGenerator.DEFAULT_ROOT_URI, seed).generate(corpusDirectory, schemaCount);
+		System.out.println("Generated " + schemaCount + " schemas in " + corpusDirectory);
+
+		MacroBenchmark benchmark = new MacroBenchmark(parallelism);
+		for (int i = 0; i < iterations; i++) {
+			Path iterationOutputDirectory = outputDirectory != null ? outputDirectory.resolve("iteration" + i) : Files.createTempDirectory("output");
+			Result result = benchmark.run(corpus, iterationOutputDirectory);
+			System.out.println("Iteration " + (i + 1) + ": " + result);
+		}
+	}
+}
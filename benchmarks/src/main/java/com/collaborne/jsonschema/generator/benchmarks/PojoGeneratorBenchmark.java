@@ -0,0 +1,94 @@
+/**
+ * Copyright (C) 2015 Collaborne B.V. (opensource@collaborne.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.collaborne.jsonschema.generator.benchmarks;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.collaborne.jsonschema.generator.CodeGenerationException;
+import com.collaborne.jsonschema.generator.benchmarks.SyntheticSchemas.Shape;
+import com.collaborne.jsonschema.generator.java.ClassName;
+import com.collaborne.jsonschema.generator.model.Mapping;
+import com.collaborne.jsonschema.generator.pojo.PojoGenerator;
+import com.github.fge.jsonschema.core.load.SchemaLoader;
+import com.github.fge.jsonschema.core.load.configuration.LoadingConfiguration;
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+
+/**
+ * Generate a single synthetic schema with a fresh {@link PojoGenerator}, writing into an in-memory file system.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PojoGeneratorBenchmark {
+	private static final URI SCHEMA_URI = URI.create("http://example.com/schemas/benchmark.json");
+
+	@Param({ "WIDE", "DEEP", "ENUM" })
+	public Shape shape;
+
+	@Param({ "10", "100" })
+	public int size;
+
+	private Injector injector;
+	private SchemaLoader schemaLoader;
+	private FileSystem fs;
+	private URI type;
+
+	@Setup
+	public void setUp() {
+		injector = Guice.createInjector();
+		schemaLoader = new SchemaLoader(LoadingConfiguration.newBuilder()
+			.preloadSchema(SCHEMA_URI.toASCIIString(), SyntheticSchemas.create(shape, size))
+			.freeze());
+		fs = Jimfs.newFileSystem(Configuration.unix());
+		type = SCHEMA_URI.resolve("#");
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		fs.close();
+	}
+
+	@Benchmark
+	public ClassName generate() throws CodeGenerationException {
+		PojoGenerator generator = injector.getInstance(PojoGenerator.class);
+		generator.setSchemaLoader(schemaLoader);
+		generator.setOutputDirectory(fs.getPath("/output"));
+		generator.addMapping(type, new Mapping(type, new ClassName("com.example.benchmark", "Root")));
+		return generator.generate(type);
+	}
+}
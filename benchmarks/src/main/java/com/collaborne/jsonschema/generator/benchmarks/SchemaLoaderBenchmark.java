@@ -0,0 +1,98 @@
+/**
+ * Copyright (C) 2015 Collaborne B.V. (opensource@collaborne.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.collaborne.jsonschema.generator.benchmarks;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.collaborne.jsonschema.generator.driver.GeneratorDriver;
+import com.collaborne.jsonschema.generator.pojo.PojoGenerator;
+import com.github.fge.jackson.JacksonUtils;
+import com.github.fge.jsonschema.core.load.SchemaLoader;
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+import com.google.inject.Guice;
+
+/**
+ * Preload {@code fileCount} schema files from an in-memory file system.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchemaLoaderBenchmark {
+	private static final URI ROOT_URI = URI.create("http://example.com/schemas/");
+
+	@Param({ "100", "1000" })
+	public int fileCount;
+
+	@Param({ "1", "4" })
+	public int parallelism;
+
+	private FileSystem fs;
+	private Path baseDirectory;
+	private List<Path> schemaFiles;
+	private GeneratorDriver driver;
+
+	@Setup
+	public void setUp() throws IOException {
+		fs = Jimfs.newFileSystem(Configuration.unix());
+		baseDirectory = fs.getPath("/schemas");
+		schemaFiles = new ArrayList<>();
+		byte[] content = JacksonUtils.newMapper().writeValueAsString(SyntheticSchemas.createWideObject(20)).getBytes(StandardCharsets.UTF_8);
+		for (int i = 0; i < fileCount; i++) {
+			Path schemaFile = baseDirectory.resolve("module" + (i % 10) + "/schema" + i + ".json");
+			Files.createDirectories(schemaFile.getParent());
+			Files.write(schemaFile, content);
+			schemaFiles.add(schemaFile);
+		}
+
+		driver = new GeneratorDriver(Guice.createInjector().getInstance(PojoGenerator.class));
+		driver.setParallelism(parallelism);
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		fs.close();
+	}
+
+	@Benchmark
+	public SchemaLoader createSchemaLoader() throws IOException {
+		return driver.createSchemaLoader(ROOT_URI, baseDirectory, schemaFiles);
+	}
+}
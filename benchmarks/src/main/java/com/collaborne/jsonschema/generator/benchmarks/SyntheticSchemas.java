@@ -0,0 +1,115 @@
+/**
+ * Copyright (C) 2015 Collaborne B.V. (opensource@collaborne.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.collaborne.jsonschema.generator.benchmarks;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Synthetic schemas for exercising specific parts of the generator.
+ */
+public final class SyntheticSchemas {
+	public enum Shape {
+		/** An object with many properties of different types */
+		WIDE,
+		/** Objects nested into each other */
+		DEEP,
+		/** A string type with many enum values */
+		ENUM
+	}
+
+	private static final JsonNodeFactory FACTORY = JsonNodeFactory.instance;
+
+	private SyntheticSchemas() {
+		// Prevent instantiation
+	}
+
+	/**
+	 * Create a schema of the given {@code shape}.
+	 *
+	 * @param shape
+	 * @param size number of properties, nesting levels or enum values
+	 * @return
+	 */
+	public static ObjectNode create(Shape shape, int size) {
+		switch (shape) {
+		case WIDE:
+			return createWideObject(size);
+		case DEEP:
+			return createDeepObject(size);
+		case ENUM:
+			return createEnum(size);
+		default:
+			throw new IllegalArgumentException("Unsupported shape " + shape);
+		}
+	}
+
+	public static ObjectNode createWideObject(int propertyCount) {
+		ObjectNode properties = FACTORY.objectNode();
+		for (int i = 0; i < propertyCount; i++) {
+			ObjectNode property = FACTORY.objectNode();
+			switch (i % 4) {
+			case 0:
+				property.put("type", "string");
+				break;
+			case 1:
+				property.put("type", "integer");
+				break;
+			case 2:
+				property.put("type", "array");
+				property.set("items", FACTORY.objectNode().put("type", "string"));
+				break;
+			case 3:
+				property.put("type", "boolean");
+				break;
+			}
+			properties.set("property" + i, property);
+		}
+		return createObject(properties);
+	}
+
+	public static ObjectNode createDeepObject(int depth) {
+		ObjectNode leafProperties = FACTORY.objectNode();
+		leafProperties.set("value", FACTORY.objectNode().put("type", "string"));
+		ObjectNode current = createObject(leafProperties);
+		for (int i = 1; i < depth; i++) {
+			ObjectNode properties = FACTORY.objectNode();
+			properties.set("value", FACTORY.objectNode().put("type", "string"));
+			properties.set("child" + i, current);
+			current = createObject(properties);
+		}
+		return current;
+	}
+
+	public static ObjectNode createEnum(int valueCount) {
+		ArrayNode values = FACTORY.arrayNode();
+		for (int i = 0; i < valueCount; i++) {
+			values.add("value-" + i);
+		}
+		ObjectNode schema = FACTORY.objectNode();
+		schema.put("type", "string");
+		schema.set("enum", values);
+		return schema;
+	}
+
+	private static ObjectNode createObject(ObjectNode properties) {
+		ObjectNode schema = FACTORY.objectNode();
+		schema.put("type", "object");
+		schema.set("properties", properties);
+		return schema;
+	}
+}
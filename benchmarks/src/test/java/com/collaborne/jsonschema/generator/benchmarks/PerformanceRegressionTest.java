@@ -0,0 +1,57 @@
+/**
+ * Copyright (C) 2015 Collaborne B.V. (opensource@collaborne.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.collaborne.jsonschema.generator.benchmarks;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.collaborne.jsonschema.generator.CodeGenerationException;
+import com.collaborne.jsonschema.generator.benchmarks.CorpusGenerator.Corpus;
+import com.collaborne.jsonschema.generator.benchmarks.MacroBenchmark.Result;
+
+/**
+ * Fail when generating the synthetic corpus takes longer than the budget.
+ *
+ * The defaults are meant for a developer machine; CI can tune them with the system properties
+ * {@code benchmark.schemas}, {@code benchmark.parallelism} and {@code benchmark.budgetMillis}.
+ */
+public class PerformanceRegressionTest {
+	private static final int SCHEMAS = Integer.getInteger("benchmark.schemas", 1000);
+	private static final int PARALLELISM = Integer.getInteger("benchmark.parallelism", Runtime.getRuntime().availableProcessors());
+	private static final long BUDGET_MILLIS = Long.getLong("benchmark.budgetMillis", 60000);
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void generateCorpusWithinBudget() throws IOException, CodeGenerationException {
+		Corpus corpus = new CorpusGenerator(CorpusGenerator.DEFAULT_ROOT_URI, 0).generate(temporaryFolder.newFolder("corpus").toPath(), SCHEMAS);
+
+		MacroBenchmark benchmark = new MacroBenchmark(PARALLELISM);
+		// Warm up, so that the measured run does not include class loading and JIT compilation of the generator
+		benchmark.run(corpus, temporaryFolder.newFolder("warmup").toPath());
+		Result result = benchmark.run(corpus, temporaryFolder.newFolder("output").toPath());
+		String description = SCHEMAS + " schemas with parallelism " + PARALLELISM + ": " + result;
+
+		assertTrue("Expected at least one file per schema, " + description, result.getWrittenFiles() >= SCHEMAS);
+		assertTrue("Budget is " + BUDGET_MILLIS + "ms, " + description, result.getWallTimeMillis() <= BUDGET_MILLIS);
+	}
+}
@@ -15,27 +15,42 @@
  */
 package com.collaborne.jsonschema.generator;
 
+import java.io.IOException;
 import java.net.URI;
 import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.collaborne.jsonschema.generator.compile.InMemorySourceCompiler;
+import com.collaborne.jsonschema.generator.metrics.GenerationMetrics;
 import com.collaborne.jsonschema.generator.model.Mapping;
-import com.github.fge.jackson.jsonpointer.JsonPointer;
-import com.github.fge.jackson.jsonpointer.JsonPointerException;
+import com.collaborne.jsonschema.generator.output.FileSystemOutputSink;
+import com.collaborne.jsonschema.generator.output.OutputSink;
+import com.collaborne.jsonschema.generator.output.SourceJarOutputSink;
 import com.github.fge.jsonschema.core.load.SchemaLoader;
 
 public abstract class AbstractGenerator implements Generator {
 	private final Logger logger = LoggerFactory.getLogger(AbstractGenerator.class);
 
 	private final Map<String, Object> features = new HashMap<>();
-	private Map<URI, Mapping> mappings = new HashMap<>();
-	private Map<URI, String> defaultPackageNames = new HashMap<>();
+	/** URIs of the features set so far that do not affect the generated sources */
+	private final Set<String> sourceIndependentFeatures = new HashSet<>();
+	/** Mappings, which might get added while generating types */
+	private Map<URI, Mapping> mappings = new ConcurrentHashMap<>();
+	private Map<URI, String> defaultPackageNames = new ConcurrentHashMap<>();
+	private final PackageNameTrie defaultPackageNameTrie = new PackageNameTrie();
 	private Path outputDirectory;
+	private volatile OutputSink outputSink;
 	private SchemaLoader schemaLoader;
+	private volatile InMemorySourceCompiler sourceCompiler;
+	private final GenerationMetrics metrics = new GenerationMetrics();
 
 	@Override
 	public <T>T getFeature(Feature<T> feature) {
@@ -44,6 +59,9 @@ public abstract class AbstractGenerator implements Generator {
 	
 	@Override
 	public <T>T setFeature(Feature<T> feature, T value) {
+		if (!feature.isAffectingSources()) {
+			sourceIndependentFeatures.add(feature.getUri());
+		}
 		return feature.set(features, value);
 	}
 
@@ -64,6 +82,7 @@ public abstract class AbstractGenerator implements Generator {
 			packageUri = baseUri;
 		}
 		defaultPackageNames.put(packageUri, packageName);
+		defaultPackageNameTrie.put(packageUri, packageName);
 	}
 
 	/**
@@ -73,33 +92,7 @@ public abstract class AbstractGenerator implements Generator {
 	 * @return
 	 */
 	public String getDefaultPackageName(URI type) {
-		URI searchUri;
-		if (type.getFragment() == null) {
-			searchUri = type.resolve("#");
-		} else {
-			searchUri = type;
-		}
-
-		String defaultPackageName = defaultPackageNames.get(searchUri);
-		while (defaultPackageName == null && !(searchUri.getFragment().isEmpty() && (searchUri.getPath().isEmpty() || "/".equals(searchUri.getPath())))) {
-			try {
-				if (!searchUri.getFragment().isEmpty()) {
-					JsonPointer pointer = new JsonPointer(searchUri.getFragment());
-					searchUri = searchUri.resolve("#" + pointer.parent().toString());
-				} else {
-					String path = searchUri.getPath();
-					int lastSlashIndex = path.lastIndexOf('/');
-					searchUri = searchUri.resolve(path.substring(0, lastSlashIndex)).resolve("#" + searchUri.getFragment());
-				}
-
-				defaultPackageName = defaultPackageNames.get(searchUri);
-			} catch (JsonPointerException e) {
-				// Assuming that the type was valid before we shouldn't end up here.
-				// However, that's just half the truth: it is possible to ask for a type with an URI that has a fragment that
-				// cannot be interpreted as a JsonPointer (which starts with '/').
-				throw new IllegalArgumentException("Cannot construct JSON pointer", e);
-			}
-		}
+		String defaultPackageName = defaultPackageNameTrie.get(type);
 		if (defaultPackageName == null) {
 			defaultPackageName = getFeature(FEATURE_DEFAULT_PACKAGE_NAME);
 			logger.warn("{}: Using package name {}", type, defaultPackageName);
@@ -107,15 +100,103 @@ public abstract class AbstractGenerator implements Generator {
 		return defaultPackageName;
 	}
 
-	protected Path getOutputDirectory() {
-		return outputDirectory;
+	/**
+	 * Describe the configuration of this generator that applies to all types.
+	 *
+	 * The description is stable between runs with the same configuration, and only includes the features that
+	 * {@link Feature#isAffectingSources() affect the generated sources}.
+	 *
+	 * @return
+	 */
+	protected String describeConfiguration() {
+		StringBuilder sb = new StringBuilder(getClass().getName());
+		Map<String, Object> sourceFeatures = new TreeMap<>(features);
+		sourceFeatures.keySet().removeAll(sourceIndependentFeatures);
+		sb.append(sourceFeatures);
+		sb.append(new TreeMap<>(defaultPackageNames));
+		return sb.toString();
+	}
+
+	@Override
+	public void finish() throws IOException, CodeGenerationException {
+		OutputSink outputSink = getOutputSink();
+		if (outputSink != null) {
+			outputSink.flush();
+		}
+	}
+
+	/**
+	 * Get the output directory, if the output goes into a file system.
+	 *
+	 * @return the directory, or {@code null}
+	 */
+	protected synchronized Path getOutputDirectory() {
+		if (outputSink == null) {
+			// Avoid creating the sink, which would open the file for a source jar
+			return outputDirectory != null && !getFeature(FEATURE_SOURCE_JAR) ? outputDirectory : null;
+		}
+		return outputSink instanceof FileSystemOutputSink ? ((FileSystemOutputSink) outputSink).getDirectory() : null;
 	}
 	
 	@Override
-	public void setOutputDirectory(Path outputDirectory) {
+	public synchronized void setOutputDirectory(Path outputDirectory) {
 		this.outputDirectory = outputDirectory;
+		this.outputSink = null;
+	}
+
+	/**
+	 * Get the sink for the output.
+	 *
+	 * When only an output directory was set the sink is created on first use, so that the features can still be set
+	 * after the output directory.
+	 *
+	 * @return the sink, or {@code null} if neither a sink nor an output directory was set
+	 * @throws IOException if the sink cannot be created
+	 */
+	protected OutputSink getOutputSink() throws IOException {
+		OutputSink result = outputSink;
+		if (result == null) {
+			synchronized (this) {
+				result = outputSink;
+				if (result == null && outputDirectory != null) {
+					if (getFeature(FEATURE_SOURCE_JAR)) {
+						// Sorting keeps all sources in memory, so only do that when the jar must be reproducible
+						result = new SourceJarOutputSink(outputDirectory, getFeature(FEATURE_SOURCE_JAR_COMPRESSION_LEVEL), getFeature(FEATURE_REPRODUCIBLE));
+					} else {
+						result = new FileSystemOutputSink(outputDirectory);
+					}
+					outputSink = result;
+				}
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public synchronized void setOutputSink(OutputSink outputSink) {
+		this.outputDirectory = null;
+		this.outputSink = outputSink;
 	}
 	
+	@Override
+	public void setSourceCompiler(InMemorySourceCompiler sourceCompiler) {
+		this.sourceCompiler = sourceCompiler;
+	}
+
+	/**
+	 * Get the compiler for the generated sources.
+	 *
+	 * @return the compiler, or {@code null}
+	 */
+	protected InMemorySourceCompiler getSourceCompiler() {
+		return sourceCompiler;
+	}
+
+	@Override
+	public GenerationMetrics getMetrics() {
+		return metrics;
+	}
+
 	@Override
 	public void setSchemaLoader(SchemaLoader schemaLoader) {
 		this.schemaLoader = schemaLoader;
@@ -15,12 +15,18 @@
  */
 package com.collaborne.jsonschema.generator;
 
+import java.io.IOException;
 import java.net.URI;
 import java.nio.file.Path;
 import java.util.Map;
 
+import com.collaborne.jsonschema.generator.compile.InMemorySourceCompiler;
 import com.collaborne.jsonschema.generator.java.ClassName;
+import com.collaborne.jsonschema.generator.metrics.GenerationMetrics;
 import com.collaborne.jsonschema.generator.model.Mapping;
+import com.collaborne.jsonschema.generator.output.FileSystemOutputSink;
+import com.collaborne.jsonschema.generator.output.OutputSink;
+import com.collaborne.jsonschema.generator.output.SourceJarOutputSink;
 import com.github.fge.jsonschema.core.load.SchemaLoader;
 
 public interface Generator {
@@ -28,15 +34,29 @@ public interface Generator {
 		private final String uri;
 		private final Class<T> requiredType;
 		private final T defaultValue;
+		private final boolean affectingSources;
 		
 		public Feature(String uri, Class<T> requiredType) {
 			this(uri, requiredType, null);
 		}
 		
 		public Feature(String uri, Class<T> requiredType, T defaultValue) {
+			this(uri, requiredType, defaultValue, true);
+		}
+
+		/**
+		 * Create a feature.
+		 *
+		 * @param uri
+		 * @param requiredType
+		 * @param defaultValue
+		 * @param affectingSources whether the value can change the generated sources, see {@link #isAffectingSources()}
+		 */
+		public Feature(String uri, Class<T> requiredType, T defaultValue, boolean affectingSources) {
 			this.uri = uri;
 			this.requiredType = requiredType;
 			this.defaultValue = defaultValue;
+			this.affectingSources = affectingSources;
 		}	
 
 		public String getUri() {
@@ -51,6 +71,18 @@ public interface Generator {
 			return defaultValue;
 		}
 
+		/**
+		 * Whether the value of this feature can change the generated sources.
+		 *
+		 * Features that only control how or where the output is written can be changed without regenerating
+		 * types that were generated before.
+		 *
+		 * @return
+		 */
+		public boolean isAffectingSources() {
+			return affectingSources;
+		}
+
 		protected T get(Map<String, Object> featureMap) {
 			Object v = featureMap.get(uri);
 			return checkCast(v);
@@ -74,15 +106,53 @@ public interface Generator {
 
 	/** The name of the package to use for anonymous types */
 	public static final Feature<String> FEATURE_DEFAULT_PACKAGE_NAME = new Feature<>("http://json-schema-bean-generator.collaborne.com/features/LATEST/package-name", String.class, "anonymous");
+	/**
+	 * Whether to write all output into a single source jar, with the output directory naming the jar file
+	 *
+	 * The sources are streamed into the jar as they are generated. With {@link #FEATURE_REPRODUCIBLE} the entries are sorted by
+	 * name instead, which keeps all sources in memory until the generator finishes.
+	 */
+	public static final Feature<Boolean> FEATURE_SOURCE_JAR = new Feature<>("http://json-schema-bean-generator.collaborne.com/features/LATEST/source-jar", Boolean.class, Boolean.FALSE, false);
+	/** Compression level for {@link #FEATURE_SOURCE_JAR}, see {@link java.util.zip.Deflater} */
+	public static final Feature<Integer> FEATURE_SOURCE_JAR_COMPRESSION_LEVEL = new Feature<>("http://json-schema-bean-generator.collaborne.com/features/LATEST/source-jar-compression-level", Integer.class, Integer.valueOf(-1), false);
+	/** Whether the output must be byte-identical between runs with the same inputs, regardless of the machine and the order of the inputs */
+	public static final Feature<Boolean> FEATURE_REPRODUCIBLE = new Feature<>("http://json-schema-bean-generator.collaborne.com/features/LATEST/reproducible", Boolean.class, Boolean.FALSE);
 	
 	/**
 	 * Set the directory for any output
 	 * 
+	 * This is a shortcut for a {@link FileSystemOutputSink} for the directory, or a {@link SourceJarOutputSink}
+	 * when {@link #FEATURE_SOURCE_JAR} is enabled.
+	 * 
 	 * @param outputDirectory
 	 */
 	// TODO: builder
 	void setOutputDirectory(Path outputDirectory);
+
+	/**
+	 * Set the sink for any output
+	 *
+	 * @param outputSink
+	 * @throws UnsupportedOperationException if the generator cannot write into a sink
+	 */
+	// TODO: builder
+	default void setOutputSink(OutputSink outputSink) {
+		throw new UnsupportedOperationException("Output sinks are not supported by " + getClass().getName());
+	}
 	
+	/**
+	 * Set a compiler that receives all generated sources, in addition to the output
+	 *
+	 * The compiler needs the sources of all types, so types are not skipped by incremental generation while a compiler is set.
+	 *
+	 * @param sourceCompiler the compiler, or {@code null}
+	 * @throws UnsupportedOperationException if the generator cannot provide its sources to a compiler
+	 */
+	// TODO: builder
+	default void setSourceCompiler(InMemorySourceCompiler sourceCompiler) {
+		throw new UnsupportedOperationException("Source compilers are not supported by " + getClass().getName());
+	}
+
 	/**
 	 * Add a mapping for the given {@code type}.
 	 *
@@ -115,7 +185,29 @@ public interface Generator {
 	 * @throws CodeGenerationException if generation failed
 	 */
 	ClassName generate(URI type) throws CodeGenerationException;
+
+	/**
+	 * Complete the generation run.
+	 *
+	 * This method must be invoked after all types have been generated, so that the generator can write any
+	 * remaining output. By default there is no remaining output.
+	 *
+	 * @throws IOException
+	 * @throws CodeGenerationException if writing output for a type failed
+	 */
+	default void finish() throws IOException, CodeGenerationException {
+		// Nothing to do
+	}
 	
+	/**
+	 * Get the metrics of the generation run.
+	 *
+	 * @return the metrics, by default empty ones for generators that do not record any
+	 */
+	default GenerationMetrics getMetrics() {
+		return new GenerationMetrics();
+	}
+
 	<T>T getFeature(Feature<T> feature);
 	<T>T setFeature(Feature<T> feature, T value);
 }
@@ -0,0 +1,223 @@
+/**
+ * Copyright (C) 2015 Collaborne B.V. (opensource@collaborne.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.collaborne.jsonschema.generator;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Trie of package names, keyed by the path segments and JSON pointer tokens of the URIs.
+ *
+ * Looking up a URI returns the package name registered for the longest prefix of that URI. The part of the lookup
+ * for the document (i.e. the URI without the fragment) is memoized, so that looking up the many types in a document
+ * only needs to walk the JSON pointer tokens of each type.
+ *
+ * Lookups are thread-safe, and can happen concurrently with adding package names.
+ */
+class PackageNameTrie {
+	private static final Node[] NO_CHILDREN = new Node[0];
+
+	private static class Node {
+		private final String key;
+		private volatile Node[] children = NO_CHILDREN;
+		/** Root of the trie for JSON pointers in the document represented by this node */
+		private volatile Node fragmentRoot;
+		private volatile String packageName;
+
+		public Node(String key) {
+			this.key = key;
+		}
+
+		public Node getChild(String s, int start, int end) {
+			int length = end - start;
+			for (Node child : children) {
+				if (child.key.length() == length && child.key.regionMatches(0, s, start, length)) {
+					return child;
+				}
+			}
+			return null;
+		}
+
+		public synchronized Node getOrCreateChild(String key) {
+			Node child = getChild(key, 0, key.length());
+			if (child == null) {
+				child = new Node(key);
+				Node[] newChildren = Arrays.copyOf(children, children.length + 1);
+				newChildren[children.length] = child;
+				children = newChildren;
+			}
+			return child;
+		}
+
+		public synchronized Node getOrCreateFragmentRoot() {
+			if (fragmentRoot == null) {
+				fragmentRoot = new Node("");
+			}
+			return fragmentRoot;
+		}
+	}
+
+	/** Result of looking up a document */
+	private static class DocumentMatch {
+		/** The node for the document, or {@code null} if nothing was registered for the document itself */
+		private final Node node;
+		/** The package name for the document */
+		private final String packageName;
+
+		public DocumentMatch(Node node, String packageName) {
+			this.node = node;
+			this.packageName = packageName;
+		}
+	}
+
+	private final Node root = new Node("");
+	/** Memoized document lookups, replaced whenever the trie changes */
+	private volatile ConcurrentMap<String, DocumentMatch> documentMatches = new ConcurrentHashMap<>();
+
+	/**
+	 * Register the {@code packageName} for {@code uri} and everything below it.
+	 *
+	 * @param uri
+	 * @param packageName
+	 * @throws IllegalArgumentException if the fragment of {@code uri} is not a JSON pointer
+	 */
+	public synchronized void put(URI uri, String packageName) {
+		Node node = root.getOrCreateChild(getDocumentRootKey(uri));
+		String path = uri.getRawPath();
+		if (path != null) {
+			int start = 0;
+			int end;
+			while ((end = nextSeparator(path, start)) != -1) {
+				if (end > start) {
+					node = node.getOrCreateChild(path.substring(start, end));
+				}
+				start = end + 1;
+			}
+		}
+
+		String fragment = getFragment(uri);
+		if (!fragment.isEmpty()) {
+			node = node.getOrCreateFragmentRoot();
+			int start = 1;
+			int end;
+			while ((end = nextSeparator(fragment, start)) != -1) {
+				node = node.getOrCreateChild(fragment.substring(start, end));
+				start = end + 1;
+			}
+		}
+
+		node.packageName = packageName;
+		documentMatches = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Get the package name registered for the longest prefix of {@code uri}.
+	 *
+	 * @param uri
+	 * @return the package name, or {@code null} if no package name applies
+	 * @throws IllegalArgumentException if the fragment of {@code uri} is not a JSON pointer
+	 */
+	public String get(URI uri) {
+		String fragment = getFragment(uri);
+
+		String uriString = uri.toString();
+		int fragmentSeparator = uriString.indexOf('#');
+		String documentKey = fragmentSeparator == -1 ? uriString : uriString.substring(0, fragmentSeparator);
+		ConcurrentMap<String, DocumentMatch> matches = documentMatches;
+		DocumentMatch documentMatch = matches.get(documentKey);
+		if (documentMatch == null) {
+			documentMatch = matchDocument(uri);
+			matches.put(documentKey, documentMatch);
+		}
+
+		String packageName = documentMatch.packageName;
+		Node node = documentMatch.node != null ? documentMatch.node.fragmentRoot : null;
+		int start = 1;
+		int end;
+		while (node != null && !fragment.isEmpty() && (end = nextSeparator(fragment, start)) != -1) {
+			node = node.getChild(fragment, start, end);
+			if (node != null && node.packageName != null) {
+				packageName = node.packageName;
+			}
+			start = end + 1;
+		}
+		return packageName;
+	}
+
+	private DocumentMatch matchDocument(URI uri) {
+		String documentRootKey = getDocumentRootKey(uri);
+		Node node = root.getChild(documentRootKey, 0, documentRootKey.length());
+		String packageName = node != null ? node.packageName : null;
+		String path = uri.getRawPath();
+		if (path != null) {
+			int start = 0;
+			int end;
+			while (node != null && (end = nextSeparator(path, start)) != -1) {
+				if (end > start) {
+					node = node.getChild(path, start, end);
+					if (node != null && node.packageName != null) {
+						packageName = node.packageName;
+					}
+				}
+				start = end + 1;
+			}
+		}
+		return new DocumentMatch(node, packageName);
+	}
+
+	/**
+	 * Find the end of the segment starting at {@code start}.
+	 *
+	 * @param s
+	 * @param start
+	 * @return the index of the next '/', or the length of {@code s}, or -1 if {@code start} is past the end of {@code s}
+	 */
+	private static int nextSeparator(String s, int start) {
+		if (start > s.length()) {
+			return -1;
+		}
+		int end = s.indexOf('/', start);
+		return end == -1 ? s.length() : end;
+	}
+
+	private static String getDocumentRootKey(URI uri) {
+		if (uri.isOpaque()) {
+			return uri.getScheme() + ":" + uri.getRawSchemeSpecificPart();
+		}
+
+		StringBuilder sb = new StringBuilder();
+		if (uri.getScheme() != null) {
+			sb.append(uri.getScheme()).append(':');
+		}
+		if (uri.getRawAuthority() != null) {
+			sb.append("//").append(uri.getRawAuthority());
+		}
+		return sb.toString();
+	}
+
+	private static String getFragment(URI uri) {
+		String fragment = uri.getFragment();
+		if (fragment == null) {
+			return "";
+		}
+		if (!fragment.isEmpty() && fragment.charAt(0) != '/') {
+			throw new IllegalArgumentException("Cannot construct JSON pointer from fragment '" + fragment + "'");
+		}
+		return fragment;
+	}
+}
@@ -16,18 +16,26 @@
 package com.collaborne.jsonschema.generator.cli;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
 import com.collaborne.jsonschema.generator.CodeGenerationException;
 import com.collaborne.jsonschema.generator.Generator;
+import com.collaborne.jsonschema.generator.compile.InMemorySourceCompiler;
 import com.collaborne.jsonschema.generator.driver.GeneratorDriver;
+import com.collaborne.jsonschema.generator.java.ClassPathIndex;
+import com.collaborne.jsonschema.generator.output.BatchingFileSystemOutputSink;
+import com.collaborne.jsonschema.generator.output.FileSystemOutputSink;
+import com.collaborne.jsonschema.generator.output.OutputSink;
+import com.collaborne.jsonschema.generator.output.ZipOutputSink;
 import com.collaborne.jsonschema.generator.pojo.PojoGenerator;
 import com.github.fge.jsonschema.core.load.SchemaLoader;
 import com.google.inject.Guice;
@@ -37,16 +45,33 @@ public class Main {
 	public static void main(String... args) throws URISyntaxException, ClassNotFoundException, IOException, CodeGenerationException {
 		List<Path> schemaFiles = new ArrayList<>();
 		List<Path> mappingFiles = new ArrayList<>();
-		Set<URI> types = new HashSet<>();
+		Set<URI> types = new LinkedHashSet<>();
 		
 		Path baseDirectory = Paths.get(".");
 		
 		URI rootUri = null;
 		Path outputDirectory = baseDirectory;
 		Class<? extends Generator> generatorClass = PojoGenerator.class;
+		int parallelism = 1;
+		int writeThreads = 0;
+		boolean incremental = false;
+		boolean prune = false;
+		boolean writeIfChanged = false;
+		boolean reproducible = false;
+		boolean streamingDeserializers = false;
+		boolean streamingSerializers = false;
+		boolean internClassEnums = false;
+		boolean primitiveArrays = false;
+		Path metricsReportFile = null;
+		Path compileOutput = null;
+		boolean compileJar = false;
+		String classPath = "";
+		boolean sourceJar = false;
+		int sourceJarCompressionLevel = Generator.FEATURE_SOURCE_JAR_COMPRESSION_LEVEL.getDefaultValue();
+		int syncBatchSize = 0;
 		for (int i = 0; i < args.length; i++) {
 			if ("--help".equals(args[i]) || "-h".equals(args[i])) {
-				System.out.println("Usage: Main [-h|--help] [--mapping MAPPING-FILE...] [--root URI] [--generator GENERATOR-CLASS] [--output-directory OUTPUT-DIRECTORY] [--type URI...] SCHEMA-FILE...");
+				System.out.println("Usage: Main [-h|--help] [--mapping MAPPING-FILE...] [--root URI] [--generator GENERATOR-CLASS] [--output-directory OUTPUT-DIRECTORY] [--output-srcjar SRCJAR-FILE] [--srcjar-compression-level LEVEL] [--sync-output BATCH-SIZE] [--parallelism THREADS] [--write-threads THREADS] [--incremental] [--prune] [--write-if-changed] [--reproducible] [--streaming-deserializers] [--streaming-serializers] [--intern-class-enums] [--primitive-arrays] [--metrics-report REPORT-FILE] [--compile-classes CLASSES-DIRECTORY] [--compile-jar JAR-FILE] [--classpath CLASS-PATH] [--type URI...] SCHEMA-FILE...");
 				System.exit(0);
 			} else if ("--root".equals(args[i])) {
 				String root = args[++i];
@@ -63,6 +88,44 @@ public class Main {
 				generatorClass = Class.forName(args[++i]).asSubclass(Generator.class);
 			} else if ("--output-directory".equals(args[i])) {
 				outputDirectory = Paths.get(args[++i]);
+				sourceJar = false;
+			} else if ("--output-srcjar".equals(args[i])) {
+				outputDirectory = Paths.get(args[++i]);
+				sourceJar = true;
+			} else if ("--srcjar-compression-level".equals(args[i])) {
+				sourceJarCompressionLevel = Integer.parseInt(args[++i]);
+			} else if ("--sync-output".equals(args[i])) {
+				syncBatchSize = Integer.parseInt(args[++i]);
+			} else if ("--parallelism".equals(args[i])) {
+				parallelism = Integer.parseInt(args[++i]);
+			} else if ("--write-threads".equals(args[i])) {
+				writeThreads = Integer.parseInt(args[++i]);
+			} else if ("--incremental".equals(args[i])) {
+				incremental = true;
+			} else if ("--prune".equals(args[i])) {
+				prune = true;
+			} else if ("--write-if-changed".equals(args[i])) {
+				writeIfChanged = true;
+			} else if ("--reproducible".equals(args[i])) {
+				reproducible = true;
+			} else if ("--streaming-deserializers".equals(args[i])) {
+				streamingDeserializers = true;
+			} else if ("--streaming-serializers".equals(args[i])) {
+				streamingSerializers = true;
+			} else if ("--intern-class-enums".equals(args[i])) {
+				internClassEnums = true;
+			} else if ("--primitive-arrays".equals(args[i])) {
+				primitiveArrays = true;
+			} else if ("--metrics-report".equals(args[i])) {
+				metricsReportFile = Paths.get(args[++i]);
+			} else if ("--compile-classes".equals(args[i])) {
+				compileOutput = Paths.get(args[++i]);
+				compileJar = false;
+			} else if ("--compile-jar".equals(args[i])) {
+				compileOutput = Paths.get(args[++i]);
+				compileJar = true;
+			} else if ("--classpath".equals(args[i])) {
+				classPath = args[++i];
 			} else if ("--type".equals(args[i])) {
 				types.add(new URI(args[++i]));
 			} else {
@@ -83,14 +146,55 @@ public class Main {
 			System.err.println("root URI must be absolute");
 			System.exit(1);
 		}
+
+		if (incremental && compileOutput != null) {
+			// Skipped types would be missing from the compiled classes
+			System.err.println("--incremental cannot be combined with --compile-classes or --compile-jar");
+			System.exit(1);
+		}
+
+		if (syncBatchSize > 0 && sourceJar) {
+			System.err.println("--sync-output requires --output-directory");
+			System.exit(1);
+		}
 		
 		Injector injector = Guice.createInjector();
 		
 		Generator generator = injector.getInstance(generatorClass);
 		generator.setFeature(PojoGenerator.FEATURE_IGNORE_MISSING_TYPES, Boolean.TRUE);
-		generator.setOutputDirectory(outputDirectory);
+		generator.setFeature(PojoGenerator.FEATURE_INCREMENTAL, incremental);
+		generator.setFeature(PojoGenerator.FEATURE_PRUNE_STALE_FILES, prune);
+		generator.setFeature(PojoGenerator.FEATURE_WRITE_IF_CHANGED, writeIfChanged);
+		generator.setFeature(PojoGenerator.FEATURE_CLASS_PATH, classPath);
+		generator.setFeature(PojoGenerator.FEATURE_WRITE_THREADS, writeThreads);
+		generator.setFeature(PojoGenerator.FEATURE_STREAMING_DESERIALIZERS, streamingDeserializers);
+		generator.setFeature(PojoGenerator.FEATURE_STREAMING_SERIALIZERS, streamingSerializers);
+		generator.setFeature(PojoGenerator.FEATURE_INTERN_CLASS_ENUMS, internClassEnums);
+		generator.setFeature(PojoGenerator.FEATURE_PRIMITIVE_ARRAYS, primitiveArrays);
+		generator.setFeature(Generator.FEATURE_REPRODUCIBLE, reproducible);
+		generator.setFeature(Generator.FEATURE_SOURCE_JAR, sourceJar);
+		generator.setFeature(Generator.FEATURE_SOURCE_JAR_COMPRESSION_LEVEL, sourceJarCompressionLevel);
+		if (syncBatchSize > 0) {
+			generator.setOutputSink(new BatchingFileSystemOutputSink(outputDirectory, syncBatchSize, true));
+		} else {
+			generator.setOutputDirectory(outputDirectory);
+		}
+
+		OutputSink classOutput = null;
+		InMemorySourceCompiler sourceCompiler = null;
+		if (compileOutput != null) {
+			if (compileJar) {
+				classOutput = new ZipOutputSink(Files.newOutputStream(compileOutput));
+			} else {
+				classOutput = new FileSystemOutputSink(compileOutput);
+			}
+			sourceCompiler = new InMemorySourceCompiler(classOutput);
+			sourceCompiler.setClassPath(ClassPathIndex.parseClassPath(classPath));
+			generator.setSourceCompiler(sourceCompiler);
+		}
 		
 		GeneratorDriver driver = new GeneratorDriver(generator);
+		driver.setParallelism(parallelism);
 		for (Path mappingFile : mappingFiles) {
 			driver.addMappings(mappingFile);
 		}
@@ -102,6 +206,21 @@ public class Main {
 		types.addAll(driver.getInitialTypes(rootUri, baseDirectory, schemaFiles));
 
 		driver.generate(types);
+		generator.finish();
+
+		if (sourceCompiler != null) {
+			try {
+				sourceCompiler.compile();
+			} finally {
+				classOutput.close();
+			}
+		}
+
+		if (metricsReportFile != null) {
+			try (OutputStream output = Files.newOutputStream(metricsReportFile)) {
+				generator.getMetrics().writeReport(output);
+			}
+		}
 
 		System.exit(0);
 	}
@@ -0,0 +1,267 @@
+/**
+ * Copyright (C) 2015 Collaborne B.V. (opensource@collaborne.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.collaborne.jsonschema.generator.compile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.JavaFileObject.Kind;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.collaborne.jsonschema.generator.CodeGenerationException;
+import com.collaborne.jsonschema.generator.output.OutputSink;
+
+/**
+ * Compiles generated sources in the running JVM, without writing them to disk first.
+ *
+ * Generators {@link #addSource(String, ByteBuffer, URI) add} the sources as they produce them, and
+ * {@link #compile()} then writes the class files into an {@link OutputSink}, for example a
+ * {@link com.collaborne.jsonschema.generator.output.FileSystemOutputSink} for a classes directory, or a
+ * {@link com.collaborne.jsonschema.generator.output.ZipOutputSink} for a jar.
+ *
+ * Compiler errors are reported against the type that produced the source.
+ */
+public class InMemorySourceCompiler {
+	/** A source held in memory */
+	private static class SourceFile extends SimpleJavaFileObject {
+		private final URI type;
+		private final byte[] content;
+
+		public SourceFile(String fileName, URI type, byte[] content) {
+			super(URI.create("memory:///" + fileName), Kind.SOURCE);
+			this.type = type;
+			this.content = content;
+		}
+
+		@Override
+		public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+			return new String(content, StandardCharsets.UTF_8);
+		}
+	}
+
+	/** A class file produced by the compiler */
+	private static class ClassFile extends SimpleJavaFileObject {
+		private final String fileName;
+		private final ByteArrayOutputStream content = new ByteArrayOutputStream();
+
+		public ClassFile(String fileName) {
+			super(URI.create("memory:///" + fileName), Kind.CLASS);
+			this.fileName = fileName;
+		}
+
+		@Override
+		public OutputStream openOutputStream() {
+			content.reset();
+			return content;
+		}
+	}
+
+	/** File manager that keeps the class files in memory, and delegates everything else */
+	private static class ClassFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+		private final List<ClassFile> classFiles = new ArrayList<>();
+
+		public ClassFileManager(StandardJavaFileManager fileManager) {
+			super(fileManager);
+		}
+
+		@Override
+		public JavaFileObject getJavaFileForOutput(Location location, String className, Kind kind, FileObject sibling) throws IOException {
+			if (location != StandardLocation.CLASS_OUTPUT || kind != Kind.CLASS) {
+				return super.getJavaFileForOutput(location, className, kind, sibling);
+			}
+			ClassFile classFile = new ClassFile(className.replace('.', '/') + Kind.CLASS.extension);
+			classFiles.add(classFile);
+			return classFile;
+		}
+	}
+
+	private final Logger logger = LoggerFactory.getLogger(InMemorySourceCompiler.class);
+	private final OutputSink classOutput;
+	/** Sources by file name, sorted so that the compiler always sees them in the same order */
+	private final Map<String, SourceFile> sources = new ConcurrentSkipListMap<>();
+	private List<Path> classPath = Collections.emptyList();
+	private List<String> options = Collections.emptyList();
+
+	public InMemorySourceCompiler(OutputSink classOutput) {
+		this.classOutput = classOutput;
+	}
+
+	/**
+	 * Set the class path for compiling, in addition to the class path of the running JVM.
+	 *
+	 * @param classPath
+	 */
+	public void setClassPath(List<Path> classPath) {
+		this.classPath = new ArrayList<>(classPath);
+	}
+
+	/**
+	 * Set additional options for the compiler, for example {@code -g} or {@code -parameters}.
+	 *
+	 * @param options
+	 */
+	public void setOptions(List<String> options) {
+		this.options = new ArrayList<>(options);
+	}
+
+	/**
+	 * Add a source to compile.
+	 *
+	 * @param fileName name of the source file, relative to the source root
+	 * @param content UTF-8 encoded content, which is copied
+	 * @param type the type the source was generated for
+	 */
+	public void addSource(String fileName, ByteBuffer content, URI type) {
+		byte[] bytes = new byte[content.remaining()];
+		content.duplicate().get(bytes);
+		sources.put(fileName, new SourceFile(fileName, type, bytes));
+	}
+
+	/**
+	 * Get the number of sources added.
+	 *
+	 * @return
+	 */
+	public int getSourceCount() {
+		return sources.size();
+	}
+
+	/**
+	 * Compile all added sources, and write the class files into the class output.
+	 *
+	 * Nothing is written if compiling fails. The class output is not flushed, that remains up to its owner.
+	 *
+	 * @return the names of the written class files
+	 * @throws CodeGenerationException for the type of the first source with an error, further errors are added as
+	 * suppressed exceptions
+	 * @throws IOException
+	 * @throws IllegalStateException if the JVM does not provide a compiler
+	 */
+	public List<String> compile() throws CodeGenerationException, IOException {
+		if (sources.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		if (compiler == null) {
+			throw new IllegalStateException("No Java compiler available, compiling requires a JDK");
+		}
+
+		List<String> compilerOptions = new ArrayList<>(options);
+		compilerOptions.add("-classpath");
+		compilerOptions.add(getCompilerClassPath());
+		// Generated sources only refer to each other and the class path, annotation processing is not needed
+		compilerOptions.add("-proc:none");
+
+		long startTime = System.nanoTime();
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		List<ClassFile> classFiles;
+		boolean success;
+		try (ClassFileManager fileManager = new ClassFileManager(compiler.getStandardFileManager(diagnostics, Locale.ROOT, StandardCharsets.UTF_8))) {
+			JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, compilerOptions, null, new ArrayList<>(sources.values()));
+			success = task.call();
+			classFiles = fileManager.classFiles;
+		}
+
+		CodeGenerationException failure = null;
+		for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+			CodeGenerationException exception = reportDiagnostic(diagnostic);
+			if (exception == null) {
+				continue;
+			}
+			if (failure == null) {
+				failure = exception;
+			} else {
+				failure.addSuppressed(exception);
+			}
+		}
+		if (failure != null) {
+			throw failure;
+		}
+		if (!success) {
+			throw new IOException("Compilation failed without reporting an error");
+		}
+
+		List<String> classFileNames = new ArrayList<>(classFiles.size());
+		for (ClassFile classFile : classFiles) {
+			classOutput.write(classFile.fileName, ByteBuffer.wrap(classFile.content.toByteArray()));
+			classFileNames.add(classFile.fileName);
+		}
+		logger.info("Compiled {} sources into {} classes in {}ms", sources.size(), classFiles.size(), (System.nanoTime() - startTime) / 1000000);
+		return classFileNames;
+	}
+
+	/**
+	 * Log a diagnostic of the compiler against the type of its source.
+	 *
+	 * @param diagnostic
+	 * @return an exception for errors, or {@code null}
+	 */
+	private CodeGenerationException reportDiagnostic(Diagnostic<? extends JavaFileObject> diagnostic) {
+		String message = diagnostic.getMessage(Locale.ROOT);
+		JavaFileObject source = diagnostic.getSource();
+		if (!(source instanceof SourceFile)) {
+			if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+				logger.error("{}", message);
+			} else {
+				logger.warn("{}", message);
+			}
+			return null;
+		}
+
+		SourceFile sourceFile = (SourceFile) source;
+		String location = sourceFile.getName() + ":" + diagnostic.getLineNumber() + ":" + diagnostic.getColumnNumber();
+		if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+			logger.error("{}: {}: {}", sourceFile.type, location, message);
+			return new CodeGenerationException(sourceFile.type, location + ": " + message);
+		}
+		logger.warn("{}: {}: {}", sourceFile.type, location, message);
+		return null;
+	}
+
+	private String getCompilerClassPath() {
+		StringBuilder sb = new StringBuilder();
+		for (Path entry : classPath) {
+			sb.append(entry.toAbsolutePath()).append(File.pathSeparatorChar);
+		}
+		sb.append(System.getProperty("java.class.path", ""));
+		return sb.toString();
+	}
+}
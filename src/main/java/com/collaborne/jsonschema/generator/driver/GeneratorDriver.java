@@ -17,15 +17,22 @@ package com.collaborne.jsonschema.generator.driver;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,12 +40,14 @@ import org.slf4j.LoggerFactory;
 import com.collaborne.jsonschema.generator.CodeGenerationException;
 import com.collaborne.jsonschema.generator.Generator;
 import com.collaborne.jsonschema.generator.java.ClassName;
+import com.collaborne.jsonschema.generator.metrics.GenerationMetrics;
+import com.collaborne.jsonschema.generator.metrics.GenerationMetrics.Phase;
 import com.collaborne.jsonschema.generator.model.Mapping;
 import com.collaborne.jsonschema.generator.model.Mappings;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.fge.jackson.JacksonUtils;
-import com.github.fge.jackson.JsonNodeReader;
 import com.github.fge.jsonschema.core.load.SchemaLoader;
 import com.github.fge.jsonschema.core.load.configuration.LoadingConfiguration;
 import com.github.fge.jsonschema.core.load.configuration.LoadingConfigurationBuilder;
@@ -57,6 +66,7 @@ public class GeneratorDriver {
 	private final Logger logger = LoggerFactory.getLogger(GeneratorDriver.class);
 	private final ObjectMapper objectMapper;
 	private final Generator generator;
+	private int parallelism = 1;
 	
 	public GeneratorDriver(Generator generator) {
 		this(JacksonUtils.newMapper(), generator);
@@ -83,6 +93,23 @@ public class GeneratorDriver {
 		// Now, start the generation by asking for the types implied in the schemas (i.e. with an empty pointer):
 		Set<URI> initialTypes = getInitialTypes(rootUri, baseDirectory, schemaFiles);
 		generate(initialTypes);
+		generator.finish();
+	}
+
+	/**
+	 * Set the number of types that can be generated in parallel.
+	 *
+	 * A parallelism larger than 1 requires a {@link Generator} that can be shared between threads. The types are then
+	 * generated in an order that can differ between runs: when the names of anonymous types collide, which one keeps the
+	 * name without a suffix can change as well. {@link Generator#FEATURE_REPRODUCIBLE} avoids this by generating sequentially.
+	 *
+	 * @param parallelism
+	 */
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Parallelism must be at least 1, but is " + parallelism);
+		}
+		this.parallelism = parallelism;
 	}
 
 	/**
@@ -92,12 +119,85 @@ public class GeneratorDriver {
 	 * @throws CodeGenerationException
 	 */
 	public void generate(Collection<URI> types) throws CodeGenerationException {
+		if (generator.getFeature(Generator.FEATURE_REPRODUCIBLE)) {
+			// Names of colliding anonymous types depend on which type claims the name first, so generate in a fixed order
+			List<URI> sortedTypes = new ArrayList<>(types);
+			Collections.sort(sortedTypes, Comparator.comparing(URI::toString));
+			if (parallelism > 1) {
+				logger.info("Generating sequentially for reproducible output, ignoring parallelism {}", parallelism);
+			}
+			for (URI type : sortedTypes) {
+				generate(type);
+			}
+			return;
+		}
+
+		if (parallelism > 1) {
+			generateParallel(types);
+			return;
+		}
+
 		for (URI type : types) {
-			ClassName className = generator.generate(type);
-			if (className != null) {
-				logger.info("{}: Generated {}.{}", type, className.getPackageName(), className.getRawClassName());
+			generate(type);
+		}
+	}
+
+	/**
+	 * Generate code for the given {@code types} using a fork-join pool.
+	 *
+	 * All types are processed, if some of them fail the exception for the first one (in the order of {@code types}) is thrown.
+	 *
+	 * @param types
+	 * @throws CodeGenerationException
+	 */
+	protected void generateParallel(Collection<URI> types) throws CodeGenerationException {
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			Map<URI, ForkJoinTask<ClassName>> tasks = new LinkedHashMap<>();
+			for (URI type : types) {
+				tasks.put(type, pool.submit(() -> generate(type)));
+			}
+
+			CodeGenerationException failure = null;
+			for (Map.Entry<URI, ForkJoinTask<ClassName>> entry : tasks.entrySet()) {
+				CodeGenerationException taskFailure;
+				try {
+					entry.getValue().get();
+					continue;
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					taskFailure = new CodeGenerationException(entry.getKey(), e);
+				} catch (ExecutionException e) {
+					if (e.getCause() instanceof CodeGenerationException) {
+						taskFailure = (CodeGenerationException) e.getCause();
+					} else if (e.getCause() instanceof RuntimeException) {
+						throw (RuntimeException) e.getCause();
+					} else {
+						taskFailure = new CodeGenerationException(entry.getKey(), e.getCause());
+					}
+				}
+
+				if (failure == null) {
+					failure = taskFailure;
+				} else {
+					failure.addSuppressed(taskFailure);
+				}
 			}
+
+			if (failure != null) {
+				throw failure;
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	private ClassName generate(URI type) throws CodeGenerationException {
+		ClassName className = generator.generate(type);
+		if (className != null) {
+			logger.info("{}: Generated {}.{}", type, className.getPackageName(), className.getRawClassName());
 		}
+		return className;
 	}
 	
 	/**
@@ -163,7 +263,7 @@ public class GeneratorDriver {
 	 * @return
 	 */
 	public Set<URI> getInitialTypes(URI rootUri, Path baseDirectory, List<Path> schemaFiles) {
-		Set<URI> types = new HashSet<>();
+		Set<URI> types = new LinkedHashSet<>();
 		URI baseDirectoryUri = baseDirectory.toAbsolutePath().normalize().toUri();
 		for (Path schemaFile : schemaFiles) {
 			URI schemaFileUri = schemaFile.toAbsolutePath().normalize().toUri();
@@ -231,19 +331,92 @@ public class GeneratorDriver {
 			loadingConfigurationBuilder.addScheme(entry.getKey(), redirectingDownloader);
 		}
 		
-		JsonNodeReader reader = new JsonNodeReader(objectMapper);
-		for (Path schemaFile : schemaFiles) {
-			URI schemaFileUri = schemaFile.toAbsolutePath().normalize().toUri();
-			URI relativeSchemaUri = baseDirectoryUri.relativize(schemaFileUri);
-			URI schemaUri = rootUri.resolve(relativeSchemaUri);
-
-			logger.info("{}: loading from {}", schemaUri, schemaFile);
-			JsonNode schemaNode = reader.fromReader(Files.newBufferedReader(schemaFile));
+		for (Map.Entry<Path, JsonNode> entry : loadSchemaFiles(schemaFiles).entrySet()) {
+			URI schemaFileUri = entry.getKey().toAbsolutePath().normalize().toUri();
 			// FIXME: (upstream?): the preloaded map is accessed via the "real URI", so we need that one here as well
 			//        This smells really wrong, after all we want all these to look like they came from rootUri()
-			loadingConfigurationBuilder.preloadSchema(schemaFileUri.toASCIIString(), schemaNode);
+			loadingConfigurationBuilder.preloadSchema(schemaFileUri.toASCIIString(), entry.getValue());
 		}
 		
 		return new SchemaLoader(loadingConfigurationBuilder.freeze());
 	}
+
+	/**
+	 * Parse the given {@code schemaFiles}, using up to {@link #setParallelism(int) parallelism} threads.
+	 *
+	 * @param schemaFiles
+	 * @return the parsed schemas, in the order of {@code schemaFiles}
+	 * @throws IOException if any of the files cannot be read or parsed
+	 */
+	@VisibleForTesting
+	protected Map<Path, JsonNode> loadSchemaFiles(List<Path> schemaFiles) throws IOException {
+		Map<Path, JsonNode> schemas = new LinkedHashMap<>();
+		if (parallelism == 1 || schemaFiles.size() < 2) {
+			for (Path schemaFile : schemaFiles) {
+				schemas.put(schemaFile, loadSchemaFile(schemaFile));
+			}
+			return schemas;
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(Math.min(parallelism, schemaFiles.size()));
+		try {
+			Map<Path, ForkJoinTask<JsonNode>> tasks = new LinkedHashMap<>();
+			for (Path schemaFile : schemaFiles) {
+				tasks.put(schemaFile, pool.submit(() -> loadSchemaFile(schemaFile)));
+			}
+
+			IOException failure = null;
+			for (Map.Entry<Path, ForkJoinTask<JsonNode>> entry : tasks.entrySet()) {
+				IOException taskFailure;
+				try {
+					schemas.put(entry.getKey(), entry.getValue().get());
+					continue;
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException("Interrupted while loading " + entry.getKey());
+				} catch (ExecutionException e) {
+					if (e.getCause() instanceof IOException) {
+						taskFailure = (IOException) e.getCause();
+					} else if (e.getCause() instanceof RuntimeException) {
+						throw (RuntimeException) e.getCause();
+					} else {
+						taskFailure = new IOException("Cannot load " + entry.getKey(), e.getCause());
+					}
+				}
+
+				if (failure == null) {
+					failure = taskFailure;
+				} else {
+					failure.addSuppressed(taskFailure);
+				}
+			}
+
+			if (failure != null) {
+				throw failure;
+			}
+			return schemas;
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	private JsonNode loadSchemaFile(Path schemaFile) throws IOException {
+		long startTime = System.nanoTime();
+		JsonNode schemaNode;
+		try (GenerationMetrics.Timer timer = generator.getMetrics().start(Phase.SCHEMA_LOADING, schemaFile)) {
+			byte[] content = Files.readAllBytes(schemaFile);
+			try (JsonParser parser = objectMapper.getFactory().createParser(content)) {
+				schemaNode = objectMapper.readTree(parser);
+				if (schemaNode == null) {
+					throw new IOException(schemaFile + ": No JSON content");
+				}
+				if (parser.nextToken() != null) {
+					throw new IOException(schemaFile + ": Trailing content after JSON value");
+				}
+			}
+		}
+		// The metrics have the loading times, so keep the log quiet for large corpora
+		logger.debug("{}: loaded in {}ms", schemaFile, (System.nanoTime() - startTime) / 1000000);
+		return schemaNode;
+	}
 }
@@ -0,0 +1,245 @@
+/**
+ * Copyright (C) 2015 Collaborne B.V. (opensource@collaborne.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.collaborne.jsonschema.generator.java;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Index of the classes available on a class path.
+ *
+ * The index is built by listing the jars and directories of the class path, so checking whether a class exists
+ * never loads or initializes it.
+ */
+public class ClassPathIndex {
+	private static final Logger LOGGER = LoggerFactory.getLogger(ClassPathIndex.class);
+	private static final String CLASS_FILE_SUFFIX = ".class";
+	private static final String VERSIONED_ENTRY_PREFIX = "META-INF/versions/";
+
+	private static class SystemClassPathIndexHolder {
+		private static final ClassPathIndex INSTANCE = createSystemClassPathIndex();
+	}
+
+	private final ClassPathIndex parent;
+	/** Binary names of the classes, i.e. using '$' as separator for nested classes */
+	private final Set<String> classNames = new HashSet<>();
+
+	/**
+	 * Create an index for the given class path {@code entries}.
+	 *
+	 * @param parent index to consult for classes not found in {@code entries}, or {@code null}
+	 * @param entries jars and directories
+	 */
+	public ClassPathIndex(@Nullable ClassPathIndex parent, Collection<Path> entries) {
+		this.parent = parent;
+
+		Set<Path> visitedEntries = new HashSet<>();
+		Deque<Path> pendingEntries = new ArrayDeque<>(entries);
+		while (!pendingEntries.isEmpty()) {
+			Path entry = pendingEntries.removeFirst().toAbsolutePath().normalize();
+			if (!visitedEntries.add(entry)) {
+				continue;
+			}
+
+			try {
+				if (Files.isDirectory(entry)) {
+					indexDirectory(entry);
+				} else if (Files.isRegularFile(entry)) {
+					pendingEntries.addAll(indexJar(entry));
+				}
+			} catch (IOException e) {
+				LOGGER.warn("{}: Cannot index class path entry", entry, e);
+			}
+		}
+	}
+
+	/**
+	 * Get the index for the classes of the running JVM and the system class path.
+	 *
+	 * @return
+	 */
+	public static ClassPathIndex getSystemClassPathIndex() {
+		return SystemClassPathIndexHolder.INSTANCE;
+	}
+
+	/**
+	 * Parse a class path in the platform format into its entries.
+	 *
+	 * @param classPath
+	 * @return
+	 */
+	public static List<Path> parseClassPath(String classPath) {
+		List<Path> entries = new ArrayList<>();
+		if (classPath != null) {
+			for (String entry : classPath.split(File.pathSeparator)) {
+				if (!entry.isEmpty()) {
+					entries.add(Paths.get(entry));
+				}
+			}
+		}
+		return entries;
+	}
+
+	/**
+	 * Check whether the class with the given binary name exists.
+	 *
+	 * @param binaryName the name of the class, using '$' as separator for nested classes
+	 * @return
+	 */
+	public boolean contains(String binaryName) {
+		return classNames.contains(binaryName) || (parent != null && parent.contains(binaryName));
+	}
+
+	/**
+	 * Get the number of classes in this index, excluding the parent.
+	 *
+	 * @return
+	 */
+	public int size() {
+		return classNames.size();
+	}
+
+	private void indexDirectory(Path directory) throws IOException {
+		try (Stream<Path> files = Files.walk(directory)) {
+			files.forEach(file -> {
+				String name = directory.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+				addClassFile(name);
+			});
+		}
+	}
+
+	/**
+	 * Index the classes in {@code jar}.
+	 *
+	 * @param jar
+	 * @return the entries referenced in the 'Class-Path' of the jar manifest
+	 * @throws IOException
+	 */
+	private List<Path> indexJar(Path jar) throws IOException {
+		List<Path> referencedEntries = new ArrayList<>();
+		try (JarFile jarFile = new JarFile(jar.toFile())) {
+			for (Enumeration<? extends ZipEntry> it = jarFile.entries(); it.hasMoreElements(); ) {
+				String name = it.nextElement().getName();
+				if (name.startsWith(VERSIONED_ENTRY_PREFIX)) {
+					// Multi-release jar: META-INF/versions/N/NAME
+					int versionEnd = name.indexOf('/', VERSIONED_ENTRY_PREFIX.length());
+					if (versionEnd == -1) {
+						continue;
+					}
+					name = name.substring(versionEnd + 1);
+				}
+				addClassFile(name);
+			}
+
+			Manifest manifest = jarFile.getManifest();
+			String classPath = manifest != null ? manifest.getMainAttributes().getValue(Attributes.Name.CLASS_PATH) : null;
+			if (classPath != null) {
+				for (String reference : classPath.trim().split("\\s+")) {
+					try {
+						URI referenceUri = jar.toUri().resolve(reference);
+						if ("file".equals(referenceUri.getScheme())) {
+							referencedEntries.add(Paths.get(referenceUri));
+						}
+					} catch (IllegalArgumentException e) {
+						LOGGER.debug("{}: Ignoring invalid Class-Path reference {}", jar, reference);
+					}
+				}
+			}
+		}
+		return referencedEntries;
+	}
+
+	private void addClassFile(String name) {
+		if (!name.endsWith(CLASS_FILE_SUFFIX) || name.endsWith("module-info.class") || name.endsWith("package-info.class")) {
+			return;
+		}
+		classNames.add(name.substring(0, name.length() - CLASS_FILE_SUFFIX.length()).replace('/', '.'));
+	}
+
+	private static ClassPathIndex createSystemClassPathIndex() {
+		long startTime = System.nanoTime();
+
+		// Classes of the JVM itself: Java 8 lists these in the boot class path, later versions provide a file system.
+		ClassPathIndex platformIndex;
+		String bootClassPath = System.getProperty("sun.boot.class.path");
+		if (bootClassPath != null) {
+			platformIndex = new ClassPathIndex(null, parseClassPath(bootClassPath));
+		} else {
+			platformIndex = new ClassPathIndex(null, getModuleDirectories());
+		}
+
+		// Classes of the application, including those of class loaders that are not reflected in the system property
+		Set<Path> entries = new LinkedHashSet<>(parseClassPath(System.getProperty("java.class.path")));
+		for (ClassLoader classLoader = Thread.currentThread().getContextClassLoader(); classLoader != null; classLoader = classLoader.getParent()) {
+			if (classLoader instanceof URLClassLoader) {
+				for (URL url : ((URLClassLoader) classLoader).getURLs()) {
+					if ("file".equals(url.getProtocol())) {
+						try {
+							entries.add(Paths.get(url.toURI()));
+						} catch (URISyntaxException|IllegalArgumentException e) {
+							LOGGER.debug("Ignoring class path URL {}", url);
+						}
+					}
+				}
+			}
+		}
+		ClassPathIndex index = new ClassPathIndex(platformIndex, entries);
+		LOGGER.debug("Indexed {} platform and {} application classes in {}ms", platformIndex.size(), index.size(), (System.nanoTime() - startTime) / 1000000);
+		return index;
+	}
+
+	private static List<Path> getModuleDirectories() {
+		List<Path> moduleDirectories = new ArrayList<>();
+		try {
+			FileSystem jrtFileSystem = FileSystems.getFileSystem(URI.create("jrt:/"));
+			try (Stream<Path> modules = Files.list(jrtFileSystem.getPath("/modules"))) {
+				modules.forEach(moduleDirectories::add);
+			}
+		} catch (FileSystemNotFoundException|IllegalArgumentException|IOException e) {
+			LOGGER.warn("Cannot list the classes of the JVM", e);
+		}
+		return moduleDirectories;
+	}
+}
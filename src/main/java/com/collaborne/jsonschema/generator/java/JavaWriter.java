@@ -15,9 +15,9 @@
  */
 package com.collaborne.jsonschema.generator.java;
 
-import java.io.BufferedWriter;
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.Writer;
 import java.util.Collection;
 import java.util.EnumSet;
 import java.util.HashMap;
@@ -45,7 +45,7 @@ public class JavaWriter implements Closeable {
 	}
 
 	private final Logger logger = LoggerFactory.getLogger(JavaWriter.class);
-	private final BufferedWriter writer;
+	private final Writer writer;
 	// TODO: allow for different indents (like 4 spaces, 2 spaces, etc)
 	private String indent = "\t";
 	private int indentLevel = 0;
@@ -56,7 +56,14 @@ public class JavaWriter implements Closeable {
 	private boolean importsFlushed = false;
 	private boolean skipNextEmptyLine = false;
 	
-	public JavaWriter(BufferedWriter writer) {
+	/**
+	 * Create a writer.
+	 *
+	 * {@code writer} receives many small writes, so it should be buffered.
+	 *
+	 * @param writer
+	 */
+	public JavaWriter(Writer writer) {
 		this.writer = writer;
 	}
 
@@ -209,6 +216,16 @@ public class JavaWriter implements Closeable {
 	}
 
 	public void writeClassStart(ClassName fqcn, ClassName extendedClass, List<ClassName> implementedInterfaces, Kind kind, Visibility visibility, Collection<Modifier> modifiers) throws IOException {
+		writeClassStart(fqcn, extendedClass, implementedInterfaces, kind, visibility, modifiers, Block.empty());
+	}
+
+	/**
+	 * Start a class.
+	 *
+	 * @param annotations writes additional annotations of the class, after the imports have been flushed
+	 * @throws IOException
+	 */
+	public void writeClassStart(ClassName fqcn, ClassName extendedClass, List<ClassName> implementedInterfaces, Kind kind, Visibility visibility, Collection<Modifier> modifiers, @Nonnull Block annotations) throws IOException {
 		ClassName generatedAnnotationClassName = ClassName.create(Generated.class);
 		writeImport(generatedAnnotationClassName);
 		if (extendedClass != null) {
@@ -223,6 +240,7 @@ public class JavaWriter implements Closeable {
 
 		// XXX: visibility in the mapping? options ("all public", "all minimum?")
 		writeAnnotation(generatedAnnotationClassName, '"' + getClass().getCanonicalName() + '"');
+		annotations.execute();
 		writeIndent();
 		write(visibility.getValue());
 		write(" ");
@@ -423,4 +441,45 @@ public class JavaWriter implements Closeable {
 		write("\n");
 		skipNextEmptyLine = true;
 	}
+
+	/**
+	 * Create a Java string literal, including the surrounding quotes, for {@code value}.
+	 *
+	 * @param value
+	 * @return
+	 */
+	public static String toStringLiteral(String value) {
+		StringBuilder sb = new StringBuilder(value.length() + 2);
+		sb.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+			case '"':
+				sb.append("\\\"");
+				break;
+			case '\\':
+				sb.append("\\\\");
+				break;
+			case '\n':
+				sb.append("\\n");
+				break;
+			case '\r':
+				sb.append("\\r");
+				break;
+			case '\t':
+				sb.append("\\t");
+				break;
+			default:
+				if (c < 0x20 || c > 0x7e) {
+					// Line terminators are handled above: a unicode escape for them would end the literal
+					sb.append(String.format("\\u%04x", (int) c));
+				} else {
+					sb.append(c);
+				}
+				break;
+			}
+		}
+		sb.append('"');
+		return sb.toString();
+	}
 }
\ No newline at end of file
@@ -0,0 +1,225 @@
+/**
+ * Copyright (C) 2015 Collaborne B.V. (opensource@collaborne.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.collaborne.jsonschema.generator.metrics;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.fge.jackson.JacksonUtils;
+
+/**
+ * Counters and timers for the phases of a generation run.
+ *
+ * Timed phases are also reported as {@link GenerationPhaseEvent JFR events}, when running on a JVM that supports
+ * them. All methods are thread-safe.
+ */
+public class GenerationMetrics {
+	/** Timed phases of a generation run */
+	public enum Phase {
+		/** Reading and parsing a schema file */
+		SCHEMA_LOADING("schemaLoading"),
+		/** Following {@code $ref}s to the schema that defines a type */
+		REF_RESOLUTION("refResolution"),
+		/** Determining the JSON schema type of a schema */
+		SCHEMA_TYPE("schemaType"),
+		/** Running the type generator, including the nested types it needs */
+		TYPE_GENERATION("typeGeneration"),
+		/** Writing a generated source into the output */
+		WRITE_SOURCE("writeSource");
+
+		private final String reportName;
+
+		private Phase(String reportName) {
+			this.reportName = reportName;
+		}
+
+		public String getReportName() {
+			return reportName;
+		}
+	}
+
+	/**
+	 * Timer for a single execution of a phase, to be used with try-with-resources.
+	 */
+	public final class Timer implements AutoCloseable {
+		private final Phase phase;
+		private final Object subject;
+		private final long startTime;
+		/** The JFR event, or {@code null} */
+		private final Object event;
+
+		private Timer(Phase phase, Object subject) {
+			this.phase = phase;
+			this.subject = subject;
+			this.event = JFR_AVAILABLE ? GenerationPhaseEvent.beginEvent() : null;
+			this.startTime = System.nanoTime();
+		}
+
+		@Override
+		public void close() {
+			long duration = System.nanoTime() - startTime;
+			PhaseStatistics statistics = phaseStatistics.get(phase);
+			statistics.count.increment();
+			statistics.totalNanos.add(duration);
+			if (event != null) {
+				GenerationPhaseEvent.endEvent(event, phase, subject);
+			}
+		}
+	}
+
+	private static class PhaseStatistics {
+		private final LongAdder count = new LongAdder();
+		private final LongAdder totalNanos = new LongAdder();
+	}
+
+	private static final boolean JFR_AVAILABLE = isJfrAvailable();
+
+	private final Map<Phase, PhaseStatistics> phaseStatistics = new EnumMap<>(Phase.class);
+	private final LongAdder generatedTypes = new LongAdder();
+	private final LongAdder skippedTypes = new LongAdder();
+	private final LongAdder nullTypes = new LongAdder();
+	private final LongAdder generatedCharacters = new LongAdder();
+	private final LongAdder emittedBytes = new LongAdder();
+
+	public GenerationMetrics() {
+		for (Phase phase : Phase.values()) {
+			phaseStatistics.put(phase, new PhaseStatistics());
+		}
+	}
+
+	private static boolean isJfrAvailable() {
+		try {
+			Class.forName("jdk.jfr.Event", false, GenerationMetrics.class.getClassLoader());
+			return true;
+		} catch (ClassNotFoundException | LinkageError e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Start timing an execution of {@code phase}.
+	 *
+	 * @param phase
+	 * @param subject the type or file the phase works on, used for the JFR event
+	 * @return the timer, which must be closed when the phase completes
+	 */
+	public Timer start(Phase phase, Object subject) {
+		return new Timer(phase, subject);
+	}
+
+	/**
+	 * Record that a class was generated with the given source.
+	 *
+	 * @param characters number of characters produced by the {@link com.collaborne.jsonschema.generator.java.JavaWriter}
+	 */
+	public void recordGeneratedType(int characters) {
+		generatedTypes.increment();
+		generatedCharacters.add(characters);
+	}
+
+	/**
+	 * Record that a type was skipped, because its output from a previous run is still valid.
+	 */
+	public void recordSkippedType() {
+		skippedTypes.increment();
+	}
+
+	/**
+	 * Record a type with value {@code "null"} for the 'type' keyword, which does not need a class.
+	 */
+	public void recordNullType() {
+		nullTypes.increment();
+	}
+
+	/**
+	 * Record bytes written into the output.
+	 *
+	 * @param bytes
+	 */
+	public void recordEmittedBytes(long bytes) {
+		emittedBytes.add(bytes);
+	}
+
+	public long getCount(Phase phase) {
+		return phaseStatistics.get(phase).count.sum();
+	}
+
+	public long getTotalTime(Phase phase, TimeUnit unit) {
+		return unit.convert(phaseStatistics.get(phase).totalNanos.sum(), TimeUnit.NANOSECONDS);
+	}
+
+	public long getGeneratedTypes() {
+		return generatedTypes.sum();
+	}
+
+	public long getSkippedTypes() {
+		return skippedTypes.sum();
+	}
+
+	public long getNullTypes() {
+		return nullTypes.sum();
+	}
+
+	public long getGeneratedCharacters() {
+		return generatedCharacters.sum();
+	}
+
+	public long getEmittedBytes() {
+		return emittedBytes.sum();
+	}
+
+	/**
+	 * Create a JSON report of the metrics.
+	 *
+	 * The times of nested phases overlap: {@link Phase#TYPE_GENERATION} includes the time of the nested types it
+	 * generated.
+	 *
+	 * @return
+	 */
+	public ObjectNode toJson() {
+		ObjectNode report = JacksonUtils.nodeFactory().objectNode();
+		ObjectNode phases = report.putObject("phases");
+		for (Phase phase : Phase.values()) {
+			ObjectNode phaseNode = phases.putObject(phase.getReportName());
+			phaseNode.put("count", getCount(phase));
+			phaseNode.put("totalNanos", getTotalTime(phase, TimeUnit.NANOSECONDS));
+		}
+		ObjectNode counters = report.putObject("counters");
+		counters.put("generatedTypes", getGeneratedTypes());
+		counters.put("skippedTypes", getSkippedTypes());
+		counters.put("nullTypes", getNullTypes());
+		counters.put("generatedCharacters", getGeneratedCharacters());
+		counters.put("emittedBytes", getEmittedBytes());
+		return report;
+	}
+
+	/**
+	 * Write the {@link #toJson() JSON report} into {@code output}.
+	 *
+	 * @param output
+	 * @throws IOException
+	 */
+	public void writeReport(OutputStream output) throws IOException {
+		ObjectMapper objectMapper = JacksonUtils.newMapper();
+		objectMapper.writerWithDefaultPrettyPrinter().writeValue(output, toJson());
+	}
+}
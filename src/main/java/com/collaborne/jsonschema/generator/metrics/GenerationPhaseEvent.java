@@ -0,0 +1,56 @@
+/**
+ * Copyright (C) 2015 Collaborne B.V. (opensource@collaborne.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.collaborne.jsonschema.generator.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for a timed {@link GenerationMetrics.Phase}.
+ *
+ * This class must only be loaded when JFR is available, {@link GenerationMetrics} checks that before using it.
+ */
+@Name("com.collaborne.jsonschema.generator.Phase")
+@Label("Generation Phase")
+@Category("JSON Schema Bean Generator")
+@Description("A phase of generating code from JSON schemas")
+class GenerationPhaseEvent extends Event {
+	@Label("Phase")
+	String phase;
+
+	@Label("Subject")
+	@Description("The type or file the phase worked on")
+	String subject;
+
+	static Object beginEvent() {
+		GenerationPhaseEvent event = new GenerationPhaseEvent();
+		event.begin();
+		return event;
+	}
+
+	static void endEvent(Object event, GenerationMetrics.Phase phase, Object subject) {
+		GenerationPhaseEvent phaseEvent = (GenerationPhaseEvent) event;
+		phaseEvent.end();
+		if (phaseEvent.shouldCommit()) {
+			phaseEvent.phase = phase.getReportName();
+			phaseEvent.subject = String.valueOf(subject);
+			phaseEvent.commit();
+		}
+	}
+}
@@ -0,0 +1,65 @@
+/**
+ * Copyright (C) 2015 Collaborne B.V. (opensource@collaborne.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.collaborne.jsonschema.generator.model;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Record of the types produced by a generation run.
+ *
+ * The manifest is kept next to the generated code, and allows the next run to skip types whose inputs did not change,
+ * and to delete files that are no longer produced.
+ */
+@JsonIgnoreProperties(ignoreUnknown=true)
+public class Manifest {
+	/** Version of the manifest format, manifests with a different version are ignored */
+	public static final int VERSION = 1;
+
+	private int version = VERSION;
+	/** Entries by type URI */
+	private Map<String, ManifestEntry> types = new TreeMap<>();
+	/** All files produced by the run, relative to the output directory */
+	private Set<String> files = new TreeSet<>();
+
+	public int getVersion() {
+		return version;
+	}
+
+	public void setVersion(int version) {
+		this.version = version;
+	}
+
+	public Map<String, ManifestEntry> getTypes() {
+		return types;
+	}
+
+	public void setTypes(Map<String, ManifestEntry> types) {
+		this.types = types;
+	}
+
+	public Set<String> getFiles() {
+		return files;
+	}
+
+	public void setFiles(Set<String> files) {
+		this.files = files;
+	}
+}
@@ -0,0 +1,73 @@
+/**
+ * Copyright (C) 2015 Collaborne B.V. (opensource@collaborne.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.collaborne.jsonschema.generator.model;
+
+import java.util.List;
+
+import com.collaborne.jsonschema.generator.java.ClassName;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
+/**
+ * Information about a single generated type in a {@link Manifest}.
+ */
+@JsonIgnoreProperties(ignoreUnknown=true)
+public class ManifestEntry {
+	/** Hash over all inputs that determined the generated code */
+	private String hash;
+	/** Name of the class for the type, {@code null} for types that do not need a class */
+	private ClassName className;
+	/** Types referenced while generating this type */
+	private List<String> dependencies;
+	/** Files produced for this type, relative to the output directory */
+	private List<String> files;
+
+	public String getHash() {
+		return hash;
+	}
+
+	public void setHash(String hash) {
+		this.hash = hash;
+	}
+
+	@JsonSerialize(using=ToStringSerializer.class)
+	public ClassName getClassName() {
+		return className;
+	}
+
+	@JsonDeserialize(converter=ClassNameConverter.class)
+	public void setClassName(ClassName className) {
+		this.className = className;
+	}
+
+	public List<String> getDependencies() {
+		return dependencies;
+	}
+
+	public void setDependencies(List<String> dependencies) {
+		this.dependencies = dependencies;
+	}
+
+	public List<String> getFiles() {
+		return files;
+	}
+
+	public void setFiles(List<String> files) {
+		this.files = files;
+	}
+}
@@ -0,0 +1,132 @@
+/**
+ * Copyright (C) 2015 Collaborne B.V. (opensource@collaborne.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.collaborne.jsonschema.generator.output;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link FileSystemOutputSink} that collects files and writes them in batches.
+ *
+ * Each file of a batch is written and closed in turn, so only one file is open at a time. With syncing enabled each
+ * directory that received files is forced to storage once after the batch, which makes the new directory entries durable
+ * without paying for a synchronous round trip per file. The contents of the files are left to the operating system,
+ * as with {@link FileSystemOutputSink}.
+ */
+public class BatchingFileSystemOutputSink extends FileSystemOutputSink {
+	private final int batchSize;
+	private final boolean sync;
+	private final Map<String, byte[]> pendingFiles = new LinkedHashMap<>();
+
+	/**
+	 * Create the sink, without syncing.
+	 *
+	 * @param directory
+	 * @param batchSize number of files to collect before writing them
+	 */
+	public BatchingFileSystemOutputSink(Path directory, int batchSize) {
+		this(directory, batchSize, false);
+	}
+
+	/**
+	 * Create the sink.
+	 *
+	 * @param directory
+	 * @param batchSize number of files to collect before writing them
+	 * @param sync whether to force the directories of each batch to storage
+	 */
+	public BatchingFileSystemOutputSink(Path directory, int batchSize, boolean sync) {
+		super(directory);
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("Batch size must be at least 1");
+		}
+		this.batchSize = batchSize;
+		this.sync = sync;
+	}
+
+	@Override
+	public void write(String fileName, ByteBuffer content) throws IOException {
+		byte[] bytes = new byte[content.remaining()];
+		content.duplicate().get(bytes);
+
+		Map<String, byte[]> batch = null;
+		synchronized (pendingFiles) {
+			pendingFiles.put(fileName, bytes);
+			if (pendingFiles.size() >= batchSize) {
+				batch = takePendingFiles();
+			}
+		}
+		if (batch != null) {
+			writeBatch(batch);
+		}
+	}
+
+	@Override
+	public boolean writeIfChanged(String fileName, ByteBuffer content) throws IOException {
+		// Pending content might be stale, so write that out first
+		flush();
+		return super.writeIfChanged(fileName, content);
+	}
+
+	@Override
+	public void flush() throws IOException {
+		Map<String, byte[]> batch;
+		synchronized (pendingFiles) {
+			batch = takePendingFiles();
+		}
+		if (!batch.isEmpty()) {
+			writeBatch(batch);
+		}
+	}
+
+	private Map<String, byte[]> takePendingFiles() {
+		Map<String, byte[]> batch = new LinkedHashMap<>(pendingFiles);
+		pendingFiles.clear();
+		return batch;
+	}
+
+	private void writeBatch(Map<String, byte[]> batch) throws IOException {
+		Set<Path> directories = new LinkedHashSet<>();
+		for (Map.Entry<String, byte[]> entry : batch.entrySet()) {
+			super.write(entry.getKey(), ByteBuffer.wrap(entry.getValue()));
+			directories.add(getDirectory().resolve(entry.getKey()).getParent());
+		}
+		if (sync) {
+			for (Path directory : directories) {
+				syncDirectory(directory);
+			}
+		}
+	}
+
+	/**
+	 * Force the entries of {@code directory} to storage.
+	 *
+	 * @param directory
+	 * @throws IOException if the directory cannot be synced, for example because the platform cannot open directories
+	 */
+	protected void syncDirectory(Path directory) throws IOException {
+		try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+			channel.force(true);
+		}
+	}
+}
@@ -0,0 +1,137 @@
+/**
+ * Copyright (C) 2015 Collaborne B.V. (opensource@collaborne.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.collaborne.jsonschema.generator.output;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link OutputSink} writing files into a directory.
+ */
+public class FileSystemOutputSink implements OutputSink {
+	private final Path directory;
+	/** Directories known to exist, so that each one only gets created once */
+	private final Set<Path> createdDirectories = ConcurrentHashMap.newKeySet();
+
+	public FileSystemOutputSink(Path directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Get the directory containing the files.
+	 *
+	 * @return
+	 */
+	public Path getDirectory() {
+		return directory;
+	}
+
+	/**
+	 * Resolve {@code fileName} against the directory, and make sure the parent directory of the result exists.
+	 *
+	 * @param fileName
+	 * @return
+	 * @throws IOException
+	 */
+	protected Path prepareFile(String fileName) throws IOException {
+		Path file = directory.resolve(fileName);
+		Path parent = file.getParent();
+		if (parent != null && !createdDirectories.contains(parent)) {
+			Files.createDirectories(parent);
+			createdDirectories.add(parent);
+		}
+		return file;
+	}
+
+	@Override
+	public void write(String fileName, ByteBuffer content) throws IOException {
+		Path file = prepareFile(fileName);
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			writeFully(channel, content);
+		}
+	}
+
+	@Override
+	public boolean writeIfChanged(String fileName, ByteBuffer content) throws IOException {
+		Path file = prepareFile(fileName);
+		if (hasContent(file, content)) {
+			return false;
+		}
+
+		// Write into a temporary file next to the output file, and then move it into place so that
+		// readers never see a partially written file.
+		Path temporaryFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+		try {
+			try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE)) {
+				writeFully(channel, content);
+			}
+			try {
+				Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(temporaryFile);
+		}
+		return true;
+	}
+
+	/**
+	 * Check whether {@code file} exists with exactly the given {@code content}.
+	 *
+	 * The size is compared first, so that only files of the same size need to be read.
+	 *
+	 * @param file
+	 * @param content
+	 * @return
+	 * @throws IOException
+	 */
+	protected boolean hasContent(Path file, ByteBuffer content) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (channel.size() != content.remaining()) {
+				return false;
+			}
+
+			// Generated sources are small, so a single read is cheaper than mapping the file.
+			ByteBuffer existingContent = ByteBuffer.allocate(content.remaining());
+			while (existingContent.hasRemaining()) {
+				if (channel.read(existingContent) == -1) {
+					return false;
+				}
+			}
+			existingContent.flip();
+			return existingContent.equals(content);
+		} catch (NoSuchFileException e) {
+			return false;
+		}
+	}
+
+	protected static void writeFully(FileChannel channel, ByteBuffer content) throws IOException {
+		ByteBuffer remaining = content.duplicate();
+		while (remaining.hasRemaining()) {
+			channel.write(remaining);
+		}
+	}
+}
@@ -0,0 +1,72 @@
+/**
+ * Copyright (C) 2015 Collaborne B.V. (opensource@collaborne.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.collaborne.jsonschema.generator.output;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * {@link OutputSink} keeping all files in memory.
+ *
+ * This is useful for tools embedding the generator that process the generated sources directly.
+ */
+public class InMemoryOutputSink implements OutputSink {
+	private final NavigableMap<String, byte[]> files = new ConcurrentSkipListMap<>();
+
+	@Override
+	public void write(String fileName, ByteBuffer content) {
+		files.put(fileName, toByteArray(content));
+	}
+
+	@Override
+	public boolean writeIfChanged(String fileName, ByteBuffer content) {
+		byte[] existingContent = files.get(fileName);
+		if (existingContent != null && ByteBuffer.wrap(existingContent).equals(content)) {
+			return false;
+		}
+		write(fileName, content);
+		return true;
+	}
+
+	/**
+	 * Get the content of a file.
+	 *
+	 * @param fileName
+	 * @return the content, or {@code null} if no such file was written
+	 */
+	public byte[] getContent(String fileName) {
+		byte[] content = files.get(fileName);
+		return content != null ? content.clone() : null;
+	}
+
+	/**
+	 * Get all files, sorted by name.
+	 *
+	 * @return a read-only view of the files
+	 */
+	public Map<String, byte[]> getFiles() {
+		return Collections.unmodifiableMap(files);
+	}
+
+	private static byte[] toByteArray(ByteBuffer content) {
+		byte[] bytes = new byte[content.remaining()];
+		content.duplicate().get(bytes);
+		return bytes;
+	}
+}
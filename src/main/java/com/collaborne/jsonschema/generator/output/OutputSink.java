@@ -0,0 +1,69 @@
+/**
+ * Copyright (C) 2015 Collaborne B.V. (opensource@collaborne.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.collaborne.jsonschema.generator.output;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Destination for the files produced by a {@link com.collaborne.jsonschema.generator.Generator}.
+ *
+ * Files are identified by their name relative to the root of the output, using '/' as separator. Implementations must
+ * be thread-safe, as generators may write files from several threads.
+ *
+ * The sink is owned by whoever created it: generators call {@link #flush()} when they finish, but never
+ * {@link #close()}.
+ */
+public interface OutputSink extends Closeable {
+	/**
+	 * Write a file, replacing any existing file with the same name.
+	 *
+	 * @param fileName
+	 * @param content the content, which the sink must not retain after returning
+	 * @throws IOException
+	 */
+	void write(String fileName, ByteBuffer content) throws IOException;
+
+	/**
+	 * Write a file, unless it already exists with exactly the given {@code content}.
+	 *
+	 * By default the file is always written.
+	 *
+	 * @param fileName
+	 * @param content the content, which the sink must not retain after returning
+	 * @return {@code true} if the file was written, {@code false} if it was unchanged
+	 * @throws IOException
+	 */
+	default boolean writeIfChanged(String fileName, ByteBuffer content) throws IOException {
+		write(fileName, content);
+		return true;
+	}
+
+	/**
+	 * Complete all writes that the sink may have deferred.
+	 *
+	 * @throws IOException
+	 */
+	default void flush() throws IOException {
+		// Nothing by default
+	}
+
+	@Override
+	default void close() throws IOException {
+		flush();
+	}
+}
@@ -0,0 +1,141 @@
+/**
+ * Copyright (C) 2015 Collaborne B.V. (opensource@collaborne.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.collaborne.jsonschema.generator.output;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * {@link OutputSink} producing a single source jar.
+ *
+ * The jar is written into a temporary file next to the target while files arrive, and moved into place by the first
+ * {@link #flush()} or {@link #close()}; files cannot be written after that. Each file can only be written once.
+ *
+ * All entries carry a fixed timestamp. When the sink is sorted the entries are ordered by name, so the same files always
+ * produce the same jar: this needs to keep the files in memory until the jar is completed.
+ */
+public class SourceJarOutputSink implements OutputSink {
+	/**
+	 * Timestamp for all entries.
+	 *
+	 * Zip entries store the local date and time, so this is computed in the default time zone to get the same stored
+	 * value everywhere.
+	 */
+	private static final long ENTRY_TIME = LocalDateTime.of(2010, 1, 1, 0, 0).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+	private final Path file;
+	private final Path temporaryFile;
+	private final ZipOutputStream zipOut;
+	/** Files waiting to be written in name order, or {@code null} when files are written as they arrive */
+	private final NavigableMap<String, byte[]> sortedFiles;
+	private boolean written;
+
+	public SourceJarOutputSink(Path file) throws IOException {
+		this(file, Deflater.DEFAULT_COMPRESSION);
+	}
+
+	public SourceJarOutputSink(Path file, int compressionLevel) throws IOException {
+		this(file, compressionLevel, false);
+	}
+
+	/**
+	 * Create the sink.
+	 *
+	 * @param file the source jar to write
+	 * @param compressionLevel the compression level, see {@link Deflater}
+	 * @param sorted whether to order the entries by name, rather than writing them as they arrive
+	 * @throws IOException
+	 */
+	public SourceJarOutputSink(Path file, int compressionLevel, boolean sorted) throws IOException {
+		if (compressionLevel != Deflater.DEFAULT_COMPRESSION && (compressionLevel < Deflater.NO_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION)) {
+			throw new IllegalArgumentException("Invalid compression level " + compressionLevel);
+		}
+		this.file = file;
+		this.sortedFiles = sorted ? new TreeMap<>() : null;
+
+		Path parent = file.toAbsolutePath().getParent();
+		Files.createDirectories(parent);
+		this.temporaryFile = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+		this.zipOut = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile), 65536));
+		this.zipOut.setLevel(compressionLevel);
+	}
+
+	public Path getFile() {
+		return file;
+	}
+
+	@Override
+	public synchronized void write(String fileName, ByteBuffer content) throws IOException {
+		if (written) {
+			throw new IllegalStateException("Source jar " + file + " is already complete");
+		}
+
+		byte[] bytes = new byte[content.remaining()];
+		content.duplicate().get(bytes);
+		if (sortedFiles != null) {
+			sortedFiles.put(fileName, bytes);
+		} else {
+			writeEntry(fileName, bytes);
+		}
+	}
+
+	@Override
+	public synchronized void flush() throws IOException {
+		if (written) {
+			return;
+		}
+		written = true;
+
+		try {
+			try (ZipOutputStream out = zipOut) {
+				if (sortedFiles != null) {
+					for (Map.Entry<String, byte[]> sortedFile : sortedFiles.entrySet()) {
+						writeEntry(sortedFile.getKey(), sortedFile.getValue());
+					}
+					sortedFiles.clear();
+				}
+			}
+			try {
+				Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(temporaryFile);
+		}
+	}
+
+	private void writeEntry(String fileName, byte[] content) throws IOException {
+		ZipEntry entry = new ZipEntry(fileName);
+		entry.setTime(ENTRY_TIME);
+		zipOut.putNextEntry(entry);
+		zipOut.write(content);
+		zipOut.closeEntry();
+	}
+}
@@ -0,0 +1,60 @@
+/**
+ * Copyright (C) 2015 Collaborne B.V. (opensource@collaborne.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.collaborne.jsonschema.generator.output;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * {@link OutputSink} streaming the files into a zip archive, for example a source jar.
+ *
+ * Entries are written in the order of the calls to {@link #write(String, ByteBuffer)}. Closing the sink finishes
+ * the archive and closes the underlying stream.
+ */
+public class ZipOutputSink implements OutputSink {
+	private final ZipOutputStream zipOutputStream;
+	private final WritableByteChannel channel;
+
+	public ZipOutputSink(OutputStream outputStream) {
+		this.zipOutputStream = new ZipOutputStream(outputStream);
+		this.channel = Channels.newChannel(zipOutputStream);
+	}
+
+	@Override
+	public synchronized void write(String fileName, ByteBuffer content) throws IOException {
+		zipOutputStream.putNextEntry(new ZipEntry(fileName));
+		ByteBuffer remaining = content.duplicate();
+		while (remaining.hasRemaining()) {
+			channel.write(remaining);
+		}
+		zipOutputStream.closeEntry();
+	}
+
+	@Override
+	public synchronized void flush() throws IOException {
+		zipOutputStream.flush();
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		zipOutputStream.close();
+	}
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright (C) 2015 Collaborne B.V. (opensource@collaborne.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.collaborne.jsonschema.generator.pojo;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.collaborne.jsonschema.generator.java.ClassName;
+import com.google.common.hash.Hashing;
+
+/**
+ * Registry of the class names used for types.
+ *
+ * Class names are compared without their type arguments, as two names that only differ in those would still end up
+ * in the same source file.
+ */
+class ClassNameRegistry {
+	private final ConcurrentMap<ClassName, URI> types = new ConcurrentHashMap<>();
+
+	/**
+	 * Register {@code className} for {@code type}, unless it is used for a different type already.
+	 *
+	 * @param className
+	 * @param type
+	 * @return {@code true} if {@code className} is now registered for {@code type}
+	 */
+	public boolean register(ClassName className, URI type) {
+		URI existingType = types.putIfAbsent(withoutTypeArguments(className), type);
+		return existingType == null || existingType.equals(type);
+	}
+
+	/**
+	 * Get the type that {@code className} is registered for.
+	 *
+	 * @param className
+	 * @return the type, or {@code null} if the class name is not registered
+	 */
+	public URI getType(ClassName className) {
+		return types.get(withoutTypeArguments(className));
+	}
+
+	/**
+	 * Register a class name for {@code type} in the given package, based on {@code rawClassName}.
+	 *
+	 * If {@code rawClassName} is used for a different type already, a suffix derived from the {@code type} is appended.
+	 * The suffix only depends on the type, but which of the colliding types gets the name without a suffix depends on the
+	 * order in which they are registered. When types are generated in parallel that order can differ between runs, so
+	 * the names are only stable with {@link com.collaborne.jsonschema.generator.Generator#FEATURE_REPRODUCIBLE}, which
+	 * generates the types sequentially in a fixed order.
+	 *
+	 * @param type
+	 * @param packageName
+	 * @param rawClassName
+	 * @return the registered class name
+	 */
+	public ClassName registerUnique(URI type, String packageName, String rawClassName) {
+		ClassName className = new ClassName(packageName, rawClassName, (ClassName[]) null);
+		if (register(className, type)) {
+			return className;
+		}
+
+		String suffixedRawClassName = rawClassName + "$" + Hashing.murmur3_32().hashString(type.toString(), StandardCharsets.UTF_8);
+		className = new ClassName(packageName, suffixedRawClassName, (ClassName[]) null);
+		for (int i = 2; !register(className, type); i++) {
+			// Hash collision, fall back to counting
+			className = new ClassName(packageName, suffixedRawClassName + "$" + i, (ClassName[]) null);
+		}
+		return className;
+	}
+
+	private static ClassName withoutTypeArguments(ClassName className) {
+		if (className.getTypeArguments() == null) {
+			return className;
+		}
+		return new ClassName(className.getPackageName(), className.getRawClassName(), (ClassName[]) null);
+	}
+}
@@ -0,0 +1,148 @@
+/**
+ * Copyright (C) 2015 Collaborne B.V. (opensource@collaborne.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.collaborne.jsonschema.generator.pojo;
+
+import java.net.URI;
+
+import com.collaborne.jsonschema.generator.pojo.PojoGenerator.AnonymousClassNameGenerator;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * {@link AnonymousClassNameGenerator} that derives the class name from the steps of the fragment of the type.
+ *
+ * Each step contributes its characters that are valid in a Java identifier, with the first one in upper case. The names
+ * of fragment prefixes are cached, so types sharing a parent pointer only need to convert their own last step.
+ *
+ * Instances such as {@link AnonymousClassNameGenerator#CAMEL_CASE} are shared by all generators, so the cache is bounded
+ * and drops the least recently used names when it is full.
+ */
+public class FragmentClassNameGenerator implements AnonymousClassNameGenerator {
+	/** Default maximum number of cached fragment names */
+	public static final int DEFAULT_MAXIMUM_CACHE_SIZE = 10000;
+
+	private final String name;
+	private final String stepSeparator;
+	private final Cache<String, String> classNames;
+
+	/**
+	 * Create the generator.
+	 *
+	 * @param name the name of this generator, used for {@link #toString()}
+	 * @param stepSeparator the separator between the names of the individual fragment steps
+	 */
+	public FragmentClassNameGenerator(String name, String stepSeparator) {
+		this(name, stepSeparator, DEFAULT_MAXIMUM_CACHE_SIZE);
+	}
+
+	/**
+	 * Create the generator.
+	 *
+	 * @param name the name of this generator, used for {@link #toString()}
+	 * @param stepSeparator the separator between the names of the individual fragment steps
+	 * @param maximumCacheSize the maximum number of cached fragment names
+	 */
+	public FragmentClassNameGenerator(String name, String stepSeparator, int maximumCacheSize) {
+		this.name = name;
+		this.stepSeparator = stepSeparator;
+		this.classNames = CacheBuilder.newBuilder()
+			.maximumSize(maximumCacheSize)
+			.build();
+	}
+
+	@Override
+	public String createClassName(URI type) {
+		String fragment = type.getFragment();
+		if (fragment == null || fragment.isEmpty()) {
+			return "Type";
+		}
+		return getClassName(fragment);
+	}
+
+	private String getClassName(String fragment) {
+		String className = classNames.getIfPresent(fragment);
+		if (className == null) {
+			// FIXME: This should be a different generator?
+			int lastSeparator = Math.max(fragment.lastIndexOf('/'), fragment.lastIndexOf(':'));
+			String parentClassName = lastSeparator > 0 ? getClassName(fragment.substring(0, lastSeparator)) : "";
+
+			StringBuilder classNameBuilder = new StringBuilder(parentClassName);
+			int stepStart = lastSeparator + 1;
+			if (!isSkippedStep(fragment, stepStart)) {
+				if (!parentClassName.isEmpty()) {
+					classNameBuilder.append(stepSeparator);
+				}
+				appendStep(classNameBuilder, fragment, stepStart);
+			}
+			className = classNameBuilder.toString();
+			classNames.put(fragment, className);
+		}
+		return className;
+	}
+
+	/**
+	 * Check whether the step at {@code start} should not contribute to the name.
+	 *
+	 * @param fragment
+	 * @param start
+	 * @return
+	 */
+	protected boolean isSkippedStep(String fragment, int start) {
+		// Skip some typical steps to make the names a bit easier to read
+		// - "": happens due to JSON pointer always starting with '/'
+		// - "properties": any reference to an anonymous type inside an "object"
+		// - "definitions": suggested node for keeping type definitions
+		int length = fragment.length() - start;
+		return length == 0
+				|| (length == "properties".length() && fragment.startsWith("properties", start))
+				|| (length == "definitions".length() && fragment.startsWith("definitions", start));
+	}
+
+	/**
+	 * Append the name for the step starting at {@code start} and ending at the end of {@code fragment}.
+	 *
+	 * @param sb
+	 * @param fragment
+	 * @param start
+	 */
+	protected void appendStep(StringBuilder sb, String fragment, int start) {
+		int first = fragment.codePointAt(start);
+		int upperFirst = Character.toUpperCase(first);
+		int i;
+		if (Character.isJavaIdentifierStart(upperFirst)) {
+			sb.appendCodePoint(upperFirst);
+			i = start + Character.charCount(first);
+		} else {
+			// Replace with '_', and keep the character if it is valid in other positions
+			sb.append('_');
+			i = start;
+		}
+
+		// Drop all characters not valid for Java
+		while (i < fragment.length()) {
+			int c = fragment.codePointAt(i);
+			if (Character.isJavaIdentifierPart(c)) {
+				sb.appendCodePoint(c);
+			}
+			i += Character.charCount(c);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+}
@@ -0,0 +1,321 @@
+/**
+ * Copyright (C) 2015 Collaborne B.V. (opensource@collaborne.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.collaborne.jsonschema.generator.pojo;
+
+import java.io.IOException;
+import java.util.Set;
+
+import com.collaborne.jsonschema.generator.java.ClassName;
+import com.collaborne.jsonschema.generator.java.JavaWriter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * Helpers for writing code that reads and writes Jackson token streams.
+ *
+ * The generated code uses fast paths for the tokens expected for the plain types, and falls back to the
+ * (de)serializer Jackson provides for the type otherwise. These (de)serializers are looked up on first use and
+ * kept in a field of the generated class.
+ *
+ * Deserializing code expects the parser in {@code p}, the context in {@code ctxt} and the current token in {@code token};
+ * serializing code expects the generator in {@code g} and the provider in {@code provider}.
+ */
+final class JacksonStreamingCode {
+	/** Name of the nested class generated with {@link PojoGenerator#FEATURE_STREAMING_DESERIALIZERS} */
+	public static final String DESERIALIZER_CLASS_NAME = "StreamingDeserializer";
+	/** Name of the nested class generated with {@link PojoGenerator#FEATURE_STREAMING_SERIALIZERS} */
+	public static final String SERIALIZER_CLASS_NAME = "StreamingSerializer";
+
+	private JacksonStreamingCode() {
+		// Prevent instantiation
+	}
+
+	public static void generateDeserializerImports(JavaWriter writer) throws IOException {
+		writer.writeImport(ClassName.create(IOException.class));
+		writer.writeImport(ClassName.create(JsonParser.class));
+		writer.writeImport(ClassName.create(JsonToken.class));
+		writer.writeImport(ClassName.create(TypeReference.class));
+		writer.writeImport(ClassName.create(DeserializationContext.class));
+		writer.writeImport(ClassName.create(JsonDeserializer.class));
+		writer.writeImport(ClassName.create(JsonDeserialize.class));
+	}
+
+	public static void generateSerializerImports(JavaWriter writer) throws IOException {
+		writer.writeImport(ClassName.create(IOException.class));
+		writer.writeImport(ClassName.create(JsonGenerator.class));
+		writer.writeImport(ClassName.create(SerializedString.class));
+		writer.writeImport(ClassName.create(TypeReference.class));
+		writer.writeImport(ClassName.create(JsonSerializer.class));
+		writer.writeImport(ClassName.create(SerializerProvider.class));
+		writer.writeImport(ClassName.create(JsonSerialize.class));
+	}
+
+	/**
+	 * Get the name of the field holding the deserializer for a property.
+	 *
+	 * @param propertyName
+	 * @return
+	 */
+	public static String getDeserializerFieldName(String propertyName) {
+		return propertyName + "Deserializer";
+	}
+
+	/**
+	 * Write the field for the deserializer looked up by {@link #writeDeserializerLookup(JavaWriter, ClassName, String)}.
+	 *
+	 * @param writer
+	 * @param fieldName
+	 * @throws IOException
+	 */
+	public static void writeDeserializerField(JavaWriter writer, String fieldName) throws IOException {
+		writer.writeIndent();
+		writer.write("private ");
+		writer.writeClassName(ClassName.create(JsonDeserializer.class, ClassName.create(Object.class)));
+		writer.write(" ");
+		writer.write(fieldName);
+		writer.write(";\n");
+	}
+
+	/**
+	 * Write the statement that looks up the deserializer for {@code className} into the field {@code fieldName}, unless that
+	 * happened already.
+	 *
+	 * The lookup happens lazily rather than in {@code ResolvableDeserializer#resolve()}: resolving eagerly would recurse
+	 * endlessly for types that contain themselves.
+	 *
+	 * @param writer
+	 * @param className
+	 * @param fieldName
+	 * @throws IOException
+	 */
+	public static void writeDeserializerLookup(JavaWriter writer, ClassName className, String fieldName) throws IOException {
+		writer.writeCode("if (" + fieldName + " == null) {");
+		writer.pushIndentLevel();
+		writer.writeIndent();
+		writer.write(fieldName);
+		writer.write(" = ctxt.findRootValueDeserializer(");
+		if (className.getTypeArguments() != null && className.getTypeArguments().length > 0) {
+			writer.write("ctxt.getTypeFactory().constructType(new ");
+			writer.writeClassName(ClassName.create(TypeReference.class, className));
+			writer.write("() {})");
+		} else {
+			writer.write("ctxt.constructType(");
+			writer.writeClassName(className);
+			writer.write(".class)");
+		}
+		writer.write(");\n");
+		writer.popIndentLevel();
+		writer.writeCode("}");
+	}
+
+	/**
+	 * Get the name of the field holding the serializer for a property.
+	 *
+	 * @param propertyName
+	 * @return
+	 */
+	public static String getSerializerFieldName(String propertyName) {
+		return propertyName + "Serializer";
+	}
+
+	/**
+	 * Get the name of the constant holding the pre-encoded name of a property.
+	 *
+	 * Different property names can map to the same constant name ({@code fooBar} and {@code foo_bar}, or {@code foo} and {@code FOO}),
+	 * so names already in {@code usedNames} get a numeric suffix. The returned name is added to {@code usedNames}.
+	 *
+	 * @param propertyName
+	 * @param usedNames
+	 * @return
+	 */
+	public static String getNameConstantName(String propertyName, Set<String> usedNames) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < propertyName.length(); i++) {
+			char c = propertyName.charAt(i);
+			if (Character.isUpperCase(c) && i > 0) {
+				sb.append('_');
+			}
+			sb.append(Character.toUpperCase(c));
+		}
+		String baseName = sb.toString();
+		String name = baseName + "_FIELD";
+		for (int suffix = 2; !usedNames.add(name); suffix++) {
+			name = baseName + "_" + suffix + "_FIELD";
+		}
+		return name;
+	}
+
+	/**
+	 * Write the constant {@code constantName} with the pre-encoded {@code propertyName}, so that the generator can copy the quoted UTF-8 bytes.
+	 *
+	 * @param writer
+	 * @param constantName
+	 * @param propertyName
+	 * @throws IOException
+	 */
+	public static void writeNameConstant(JavaWriter writer, String constantName, String propertyName) throws IOException {
+		writer.writeIndent();
+		writer.write("private static final ");
+		writer.writeClassName(ClassName.create(SerializedString.class));
+		writer.write(" " + constantName + " = new ");
+		writer.writeClassName(ClassName.create(SerializedString.class));
+		writer.write("(" + JavaWriter.toStringLiteral(propertyName) + ");\n");
+	}
+
+	/**
+	 * Write the field for the serializer used by {@link #writeWriteValue(JavaWriter, ClassName, String, String)}, if
+	 * values of {@code className} need one.
+	 *
+	 * @param writer
+	 * @param className
+	 * @param fieldName
+	 * @throws IOException
+	 */
+	public static void writeSerializerField(JavaWriter writer, ClassName className, String fieldName) throws IOException {
+		if (!needsSerializer(className)) {
+			return;
+		}
+		writer.writeIndent();
+		writer.write("private ");
+		writer.writeClassName(ClassName.create(JsonSerializer.class, ClassName.create(Object.class)));
+		writer.write(" ");
+		writer.write(fieldName);
+		writer.write(";\n");
+	}
+
+	/**
+	 * Write the statements writing the value of {@code className} in the local variable {@code valueName}.
+	 *
+	 * Plain types are written directly, without boxing. Other values use the serializer for {@code className},
+	 * which is looked up into the field {@code fieldName} on first use.
+	 *
+	 * @param writer
+	 * @param className
+	 * @param valueName
+	 * @param fieldName
+	 * @throws IOException
+	 */
+	public static void writeWriteValue(JavaWriter writer, ClassName className, String valueName, String fieldName) throws IOException {
+		switch (getQualifiedRawClassName(className)) {
+		case "int":
+		case "long":
+		case "double":
+			writer.writeCode("g.writeNumber(" + valueName + ");");
+			break;
+		case "boolean":
+			writer.writeCode("g.writeBoolean(" + valueName + ");");
+			break;
+		case "java.lang.String":
+			// The generators write 'null' for a null string
+			writer.writeCode("g.writeString(" + valueName + ");");
+			break;
+		case "java.lang.Object":
+			// Only the runtime type can tell how to write this
+			writer.writeCode("provider.defaultSerializeValue(" + valueName + ", g);");
+			break;
+		default:
+			writer.writeCode(
+				"if (" + valueName + " == null) {",
+				"\tprovider.defaultSerializeNull(g);",
+				"} else {");
+			writer.pushIndentLevel();
+			writer.writeCode("if (" + fieldName + " == null) {");
+			writer.pushIndentLevel();
+			writer.writeIndent();
+			writer.write(fieldName);
+			writer.write(" = provider.findValueSerializer(");
+			if (className.getTypeArguments() != null && className.getTypeArguments().length > 0) {
+				writer.write("provider.getTypeFactory().constructType(new ");
+				writer.writeClassName(ClassName.create(TypeReference.class, className));
+				writer.write("() {})");
+			} else {
+				writer.writeClassName(className);
+				writer.write(".class");
+			}
+			writer.write(", null);\n");
+			writer.popIndentLevel();
+			writer.writeCode(
+				"}",
+				fieldName + ".serialize(" + valueName + ", g, provider);");
+			writer.popIndentLevel();
+			writer.writeCode("}");
+			break;
+		}
+	}
+
+	private static boolean needsSerializer(ClassName className) {
+		switch (getQualifiedRawClassName(className)) {
+		case "int":
+		case "long":
+		case "double":
+		case "boolean":
+		case "java.lang.String":
+		case "java.lang.Object":
+			return false;
+		default:
+			return true;
+		}
+	}
+
+	private static String getQualifiedRawClassName(ClassName className) {
+		return className.getPackageName().isEmpty() ? className.getRawClassName() : className.getPackageName() + "." + className.getRawClassName();
+	}
+
+	/**
+	 * Write an expression reading a value of {@code className} from the parser {@code p}, which is positioned at the first token of the value.
+	 *
+	 * The deserializer in {@code fieldName} must have been looked up before.
+	 *
+	 * @param writer
+	 * @param className
+	 * @param fieldName
+	 * @throws IOException
+	 */
+	public static void writeReadValue(JavaWriter writer, ClassName className, String fieldName) throws IOException {
+		String deserialize = fieldName + ".deserialize(p, ctxt)";
+		switch (getQualifiedRawClassName(className)) {
+		case "int":
+			writer.write("token == JsonToken.VALUE_NUMBER_INT ? p.getIntValue() : (Integer) " + deserialize);
+			break;
+		case "long":
+			writer.write("token == JsonToken.VALUE_NUMBER_INT ? p.getLongValue() : (Long) " + deserialize);
+			break;
+		case "double":
+			writer.write("token == JsonToken.VALUE_NUMBER_FLOAT || token == JsonToken.VALUE_NUMBER_INT ? p.getDoubleValue() : (Double) " + deserialize);
+			break;
+		case "boolean":
+			writer.write("token == JsonToken.VALUE_TRUE ? true : token == JsonToken.VALUE_FALSE ? false : (Boolean) " + deserialize);
+			break;
+		case "java.lang.String":
+			writer.write("token == JsonToken.VALUE_STRING ? p.getText() : token == JsonToken.VALUE_NULL ? null : (String) " + deserialize);
+			break;
+		default:
+			writer.write("token == JsonToken.VALUE_NULL ? null : (");
+			writer.writeClassName(className);
+			writer.write(") " + deserialize);
+			break;
+		}
+	}
+}
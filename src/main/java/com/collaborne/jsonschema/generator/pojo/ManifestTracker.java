@@ -0,0 +1,381 @@
+/**
+ * Copyright (C) 2015 Collaborne B.V. (opensource@collaborne.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.collaborne.jsonschema.generator.pojo;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.collaborne.jsonschema.generator.java.ClassName;
+import com.collaborne.jsonschema.generator.model.Manifest;
+import com.collaborne.jsonschema.generator.model.ManifestEntry;
+import com.collaborne.jsonschema.generator.model.Mapping;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fge.jackson.JacksonUtils;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.tree.SchemaTree;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * Tracks the inputs of generated types in a {@link Manifest}, so that unchanged types can be skipped in the next run.
+ *
+ * The manifest also lists all files produced by a run, so that files that are no longer produced can be removed
+ * without scanning the output directory.
+ *
+ * The hash of a type covers its schema, its mapping, the global configuration of the generator, and the hashes of all
+ * types referenced while generating it.
+ */
+class ManifestTracker {
+	/** Access to the types known to the generator */
+	interface TypeResolver {
+		SchemaTree getSchema(URI type) throws ProcessingException;
+		Mapping getMapping(URI type);
+	}
+
+	private static final HashFunction HASH_FUNCTION = Hashing.sha256();
+
+	private final Logger logger = LoggerFactory.getLogger(ManifestTracker.class);
+	private final ObjectMapper objectMapper = JacksonUtils.newMapper();
+	private final Path manifestFile;
+	private final Path outputDirectory;
+	private final TypeResolver typeResolver;
+	/** Hash of the configuration that applies to all types */
+	private final String configurationHash;
+	private final Map<String, ManifestEntry> previousEntries;
+	/** Files produced by the previous run */
+	private final Set<String> previousFiles;
+	/** Class names of the previous run, which must not be used for other types */
+	private final Map<ClassName, URI> previousClassNames = new HashMap<>();
+	/** Hashes of the types that were generated or found to be unchanged in this run */
+	private final ConcurrentMap<URI, String> hashes = new ConcurrentHashMap<>();
+	private final ConcurrentMap<URI, ManifestEntry> entries = new ConcurrentHashMap<>();
+	/** Files produced in this run, either written or carried over with unchanged types */
+	private final Set<String> files = ConcurrentHashMap.newKeySet();
+
+	public ManifestTracker(Path manifestFile, Path outputDirectory, TypeResolver typeResolver, String configuration) {
+		this.manifestFile = manifestFile;
+		this.outputDirectory = outputDirectory;
+		this.typeResolver = typeResolver;
+		this.configurationHash = HASH_FUNCTION.newHasher()
+			.putInt(Manifest.VERSION)
+			.putString(configuration, StandardCharsets.UTF_8)
+			.hash()
+			.toString();
+		Manifest previousManifest = readManifest();
+		this.previousEntries = previousManifest.getTypes();
+		this.previousFiles = previousManifest.getFiles() != null ? previousManifest.getFiles() : Collections.emptySet();
+		for (Map.Entry<String, ManifestEntry> entry : previousEntries.entrySet()) {
+			if (entry.getValue().getClassName() != null) {
+				previousClassNames.put(entry.getValue().getClassName(), URI.create(entry.getKey()));
+			}
+		}
+	}
+
+	private Manifest readManifest() {
+		try (InputStream input = Files.newInputStream(manifestFile)) {
+			Manifest manifest = objectMapper.readValue(input, Manifest.class);
+			if (manifest.getVersion() == Manifest.VERSION && manifest.getTypes() != null) {
+				return manifest;
+			}
+			logger.info("{}: Ignoring manifest with version {}", manifestFile, manifest.getVersion());
+		} catch (NoSuchFileException e) {
+			logger.debug("{}: No manifest found", manifestFile);
+		} catch (IOException e) {
+			logger.warn("{}: Cannot read manifest, generating all types", manifestFile, e);
+		}
+		return new Manifest();
+	}
+
+	/**
+	 * Write the manifest for the types recorded in this run.
+	 *
+	 * @throws IOException
+	 */
+	public void writeManifest() throws IOException {
+		Manifest manifest = new Manifest();
+		for (Map.Entry<URI, ManifestEntry> entry : entries.entrySet()) {
+			manifest.getTypes().put(entry.getKey().toString(), entry.getValue());
+		}
+		manifest.setFiles(new TreeSet<>(files));
+
+		Files.createDirectories(manifestFile.toAbsolutePath().getParent());
+		try (OutputStream output = Files.newOutputStream(manifestFile)) {
+			objectMapper.writerWithDefaultPrettyPrinter().writeValue(output, manifest);
+		}
+		logger.info("{}: Wrote manifest with {} types", manifestFile, entries.size());
+	}
+
+	/**
+	 * Delete the files of the previous run that were not produced again in this run.
+	 *
+	 * Directories that become empty are deleted as well, up to the output directory.
+	 *
+	 * @return the number of deleted files
+	 * @throws IOException
+	 */
+	public int pruneStaleFiles() throws IOException {
+		int deletedFileCount = 0;
+		for (String file : previousFiles) {
+			if (files.contains(file)) {
+				continue;
+			}
+
+			Path staleFile = outputDirectory.resolve(file);
+			if (Files.deleteIfExists(staleFile)) {
+				logger.info("{}: Deleted stale file", staleFile);
+				deletedFileCount++;
+				deleteEmptyParentDirectories(staleFile);
+			}
+		}
+		return deletedFileCount;
+	}
+
+	private void deleteEmptyParentDirectories(Path file) throws IOException {
+		for (Path directory = file.getParent(); directory != null && !directory.equals(outputDirectory); directory = directory.getParent()) {
+			try {
+				Files.delete(directory);
+			} catch (DirectoryNotEmptyException | NoSuchFileException e) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Record that {@code file} was produced in this run.
+	 *
+	 * @param file the file, relative to the output directory
+	 */
+	public void recordFile(String file) {
+		files.add(file);
+	}
+
+	/**
+	 * Get the class names used in the previous run.
+	 *
+	 * @return the types by class name
+	 */
+	public Map<ClassName, URI> getPreviousClassNames() {
+		return Collections.unmodifiableMap(previousClassNames);
+	}
+
+	/**
+	 * Find the entry of the previous run for {@code type}, if neither the type nor any of the types it depends on changed.
+	 *
+	 * If an entry is returned, it and the entries of all the types it depends on are carried over into this run.
+	 *
+	 * @param type
+	 * @param schema
+	 * @param mapping the mapping provided by the user, or {@code null}
+	 * @return the unchanged entry, or {@code null} if the type must be generated
+	 */
+	public ManifestEntry findUnchanged(URI type, SchemaTree schema, Mapping mapping) {
+		ManifestEntry previousEntry = previousEntries.get(type.toString());
+		if (previousEntry == null) {
+			return null;
+		}
+
+		Map<URI, String> computedHashes = new HashMap<>();
+		String hash = computeHash(type, schema, mapping, computedHashes, new HashSet<>());
+		if (!previousEntry.getHash().equals(hash)) {
+			return null;
+		}
+
+		// Make sure the output still is where we left it
+		List<ManifestEntry> unchangedEntries = new ArrayList<>();
+		for (URI computedType : computedHashes.keySet()) {
+			ManifestEntry entry = entries.get(computedType);
+			if (entry == null) {
+				entry = previousEntries.get(computedType.toString());
+			}
+			if (entry == null) {
+				// Not a generated type but a $ref
+				continue;
+			}
+			if (entry.getFiles() != null) {
+				for (String file : entry.getFiles()) {
+					if (!Files.exists(outputDirectory.resolve(file))) {
+						logger.debug("{}: {} is missing", type, file);
+						return null;
+					}
+				}
+			}
+			unchangedEntries.add(entry);
+		}
+
+		for (Map.Entry<URI, String> computedHash : computedHashes.entrySet()) {
+			hashes.putIfAbsent(computedHash.getKey(), computedHash.getValue());
+			ManifestEntry entry = previousEntries.get(computedHash.getKey().toString());
+			if (entry != null) {
+				entries.putIfAbsent(computedHash.getKey(), entry);
+			}
+		}
+		for (ManifestEntry entry : unchangedEntries) {
+			if (entry.getFiles() != null) {
+				files.addAll(entry.getFiles());
+			}
+		}
+		logger.debug("{}: Unchanged together with {} other types", type, unchangedEntries.size() - 1);
+		return previousEntry;
+	}
+
+	/**
+	 * Record the result of generating {@code type}.
+	 *
+	 * @param type
+	 * @param schema
+	 * @param mapping the mapping provided by the user, or {@code null}
+	 * @param className
+	 * @param dependencies types referenced while generating
+	 * @param files files written, relative to the output directory
+	 */
+	public void record(URI type, SchemaTree schema, Mapping mapping, ClassName className, Collection<URI> dependencies, Collection<String> files) {
+		Hasher hasher = HASH_FUNCTION.newHasher();
+		hasher.putString(getOwnHash(schema, mapping), StandardCharsets.UTF_8);
+		List<String> dependencyStrings = new ArrayList<>();
+		for (URI dependency : dependencies) {
+			String dependencyHash = computeHash(dependency, new HashMap<>(), new HashSet<>());
+			if (dependencyHash == null) {
+				// Something went wrong there, make sure we see this type again in the next run
+				logger.debug("{}: Not recording, dependency {} is unknown", type, dependency);
+				return;
+			}
+			hasher.putString(dependencyHash, StandardCharsets.UTF_8);
+			dependencyStrings.add(dependency.toString());
+		}
+		String hash = hasher.hash().toString();
+
+		ManifestEntry entry = new ManifestEntry();
+		entry.setHash(hash);
+		entry.setClassName(className);
+		entry.setDependencies(dependencyStrings);
+		entry.setFiles(new ArrayList<>(files));
+		hashes.put(type, hash);
+		entries.put(type, entry);
+	}
+
+	private String computeHash(URI type, Map<URI, String> computedHashes, Set<URI> visiting) {
+		String hash = hashes.get(type);
+		if (hash != null) {
+			return hash;
+		}
+
+		SchemaTree schema;
+		try {
+			schema = typeResolver.getSchema(type);
+		} catch (ProcessingException e) {
+			return null;
+		}
+		if (schema == null || schema.getNode() == null) {
+			return null;
+		}
+		return computeHash(type, schema, typeResolver.getMapping(type), computedHashes, visiting);
+	}
+
+	private String computeHash(URI type, SchemaTree schema, Mapping mapping, Map<URI, String> computedHashes, Set<URI> visiting) {
+		String hash = hashes.get(type);
+		if (hash == null) {
+			hash = computedHashes.get(type);
+		}
+		if (hash != null) {
+			return hash;
+		}
+		if (!visiting.add(type)) {
+			// Recursion: treat as changed
+			return null;
+		}
+
+		try {
+			Hasher hasher = HASH_FUNCTION.newHasher();
+			hasher.putString(getOwnHash(schema, mapping), StandardCharsets.UTF_8);
+			if (mapping == null && schema.getNode().hasNonNull("$ref")) {
+				// Follow the reference in the same way as the generator
+				URI refType = schema.getLoadingRef().toURI().resolve(schema.getNode().get("$ref").textValue());
+				String refHash = computeHash(refType, computedHashes, visiting);
+				if (refHash == null) {
+					return null;
+				}
+				hasher.putString(refHash, StandardCharsets.UTF_8);
+			} else {
+				// Use the dependencies from the previous run: if these changed the schema must have changed as well
+				ManifestEntry previousEntry = previousEntries.get(type.toString());
+				if (previousEntry == null) {
+					return null;
+				}
+				if (previousEntry.getDependencies() != null) {
+					for (String dependency : previousEntry.getDependencies()) {
+						String dependencyHash = computeHash(URI.create(dependency), computedHashes, visiting);
+						if (dependencyHash == null) {
+							return null;
+						}
+						hasher.putString(dependencyHash, StandardCharsets.UTF_8);
+					}
+				}
+			}
+			hash = hasher.hash().toString();
+			computedHashes.put(type, hash);
+			return hash;
+		} finally {
+			visiting.remove(type);
+		}
+	}
+
+	private String getOwnHash(SchemaTree schema, Mapping mapping) {
+		Hasher hasher = HASH_FUNCTION.newHasher();
+		hasher.putString(configurationHash, StandardCharsets.UTF_8);
+		hasher.putString(schema.getNode().toString(), StandardCharsets.UTF_8);
+		hasher.putString(describeMapping(mapping), StandardCharsets.UTF_8);
+		return hasher.hash().toString();
+	}
+
+	private static String describeMapping(Mapping mapping) {
+		if (mapping == null) {
+			return "-";
+		}
+
+		Map<String, Object> values = new TreeMap<>();
+		values.put("className", mapping.getClassName());
+		values.put("generatedClassName", mapping.getGeneratedClassName());
+		values.put("extends", mapping.getExtends());
+		values.put("implements", mapping.getImplements());
+		values.put("ignoreAdditionalProperties", mapping.isIgnoreAdditionalProperties());
+		values.put("modifiers", mapping.getModifiers());
+		values.put("enumStyle", mapping.getEnumStyle());
+		return values.toString();
+	}
+}
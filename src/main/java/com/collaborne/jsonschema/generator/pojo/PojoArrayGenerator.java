@@ -16,8 +16,11 @@
 package com.collaborne.jsonschema.generator.pojo;
 
 import java.io.IOException;
+import java.lang.reflect.Array;
 import java.net.URI;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
 
 import com.collaborne.jsonschema.generator.CodeGenerationException;
@@ -25,8 +28,19 @@ import com.collaborne.jsonschema.generator.java.ClassName;
 import com.collaborne.jsonschema.generator.java.JavaWriter;
 import com.github.fge.jackson.jsonpointer.JsonPointer;
 import com.github.fge.jsonschema.core.tree.SchemaTree;
+import com.google.common.primitives.Primitives;
 
 public class PojoArrayGenerator extends AbstractPojoTypeGenerator {
+	/** Primitive types by their class name */
+	private static final Map<ClassName, Class<?>> PRIMITIVE_TYPES = new HashMap<>();
+	static {
+		for (Class<?> primitiveType : Primitives.allPrimitiveTypes()) {
+			if (primitiveType != Void.TYPE) {
+				PRIMITIVE_TYPES.put(ClassName.create(primitiveType), primitiveType);
+			}
+		}
+	}
+
 	@Override
 	public ClassName generate(PojoCodeGenerationContext context, SchemaTree schema, JavaWriter writer) throws IOException, CodeGenerationException {
 		// In the easy case we just have type=array, items=SCHEMA, which means we produce a List<SCHEMA-TYPE> reference
@@ -52,6 +66,14 @@ public class PojoArrayGenerator extends AbstractPojoTypeGenerator {
 				throw new CodeGenerationException(context.getType(), "Unknown element type: cannot create array type");
 			}
 			
+			Class<?> primitiveType = PRIMITIVE_TYPES.get(elementClassName.get());
+			if (primitiveType != null) {
+				// Lists cannot hold primitives: either use an array, or box the elements
+				if (context.getGenerator().getFeature(PojoGenerator.FEATURE_PRIMITIVE_ARRAYS)) {
+					return ClassName.create(Array.newInstance(primitiveType, 0).getClass());
+				}
+				return ClassName.create(List.class, ClassName.create(Primitives.wrap(primitiveType)));
+			}
 			return ClassName.create(List.class, elementClassName.get());
 		}
 		
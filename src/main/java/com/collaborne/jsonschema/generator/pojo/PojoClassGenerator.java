@@ -22,6 +22,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -31,12 +32,24 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.collaborne.jsonschema.generator.CodeGenerationException;
+import com.collaborne.jsonschema.generator.Generator.Feature;
 import com.collaborne.jsonschema.generator.java.ClassName;
 import com.collaborne.jsonschema.generator.java.JavaWriter;
+import com.collaborne.jsonschema.generator.java.JavaWriter.Block;
 import com.collaborne.jsonschema.generator.java.Kind;
+import com.collaborne.jsonschema.generator.java.Modifier;
 import com.collaborne.jsonschema.generator.java.Visibility;
 import com.collaborne.jsonschema.generator.model.Mapping;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.github.fge.jackson.jsonpointer.JsonPointer;
 import com.github.fge.jsonschema.core.tree.SchemaTree;
 
@@ -215,8 +228,26 @@ class PojoClassGenerator extends AbstractPojoTypeGenerator {
 			}
 		}
 
+		ClassName generatedClassName = mapping.getGeneratedClassName();
+		boolean streamingDeserializer = isStreamingCodeEnabled(context, PojoGenerator.FEATURE_STREAMING_DESERIALIZERS);
+		if (streamingDeserializer) {
+			JacksonStreamingCode.generateDeserializerImports(writer);
+		}
+		boolean streamingSerializer = isStreamingCodeEnabled(context, PojoGenerator.FEATURE_STREAMING_SERIALIZERS);
+		if (streamingSerializer) {
+			JacksonStreamingCode.generateSerializerImports(writer);
+		}
+		Block annotations = () -> {
+			if (streamingDeserializer) {
+				writer.writeAnnotation(ClassName.create(JsonDeserialize.class), "using = " + generatedClassName.getRawClassName() + "." + JacksonStreamingCode.DESERIALIZER_CLASS_NAME + ".class");
+			}
+			if (streamingSerializer) {
+				writer.writeAnnotation(ClassName.create(JsonSerialize.class), "using = " + generatedClassName.getRawClassName() + "." + JacksonStreamingCode.SERIALIZER_CLASS_NAME + ".class");
+			}
+		};
+
 		writeSchemaDocumentation(schema, writer);
-		writer.writeClassStart(mapping.getGeneratedClassName(), extendedClass, mapping.getImplements(), Kind.CLASS, Visibility.PUBLIC, mapping.getModifiers());
+		writer.writeClassStart(generatedClassName, extendedClass, mapping.getImplements(), Kind.CLASS, Visibility.PUBLIC, mapping.getModifiers(), annotations);
 		try {
 			// Write properties
 			for (PojoPropertyGenerator propertyGenerator : propertyGenerators) {
@@ -249,8 +280,208 @@ class PojoClassGenerator extends AbstractPojoTypeGenerator {
 				writer.writeCode("return additionalPropertiesMap.entrySet();");
 				writer.writeMethodBodyEnd();
 			}
+
+			if (streamingDeserializer) {
+				generateDeserializer(generatedClassName, propertyGenerators, additionalPropertiesValueClassName, writer);
+			}
+			if (streamingSerializer) {
+				generateSerializer(generatedClassName, propertyGenerators, additionalPropertiesValueClassName, writer);
+			}
 		} finally {
 			writer.writeClassEnd();
 		}
 	}
+
+	/**
+	 * Check whether a streaming deserializer or serializer should be generated for the class.
+	 *
+	 * The (de)serializer gets registered with an annotation, which would also apply to classes that extend the
+	 * generated one: so this is only possible for concrete classes that are used directly, and that do not extend other classes.
+	 *
+	 * @param context
+	 * @param feature
+	 * @return
+	 */
+	protected boolean isStreamingCodeEnabled(PojoCodeGenerationContext context, Feature<Boolean> feature) {
+		if (!context.getGenerator().getFeature(feature)) {
+			return false;
+		}
+
+		Mapping mapping = context.getMapping();
+		if (mapping.getModifiers() != null && mapping.getModifiers().contains(Modifier.ABSTRACT)) {
+			logger.warn("{}: not generating streaming code for abstract class {}", context.getType(), mapping.getGeneratedClassName());
+			return false;
+		}
+		if (mapping.getExtends() != null) {
+			// The properties of the extended class are unknown here, so the generated code would lose them
+			logger.warn("{}: not generating streaming code for {}, which extends {}", context.getType(), mapping.getGeneratedClassName(), mapping.getExtends());
+			return false;
+		}
+		if (!mapping.getGeneratedClassName().equals(mapping.getClassName())) {
+			logger.warn("{}: not generating streaming code for {}, which is extended by {}", context.getType(), mapping.getGeneratedClassName(), mapping.getClassName());
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Generate a nested class that deserializes the class from the Jackson token stream.
+	 *
+	 * Properties are dispatched through a {@code switch} on their name, which the compiler turns into a lookup on the hash code of the name.
+	 * Unknown properties go into the {@code additionalPropertiesMap}, or are skipped if the class has none.
+	 *
+	 * @param generatedClassName
+	 * @param propertyGenerators
+	 * @param additionalPropertiesValueClassName
+	 * @param writer
+	 * @throws IOException
+	 */
+	protected void generateDeserializer(ClassName generatedClassName, List<PojoPropertyGenerator> propertyGenerators, ClassName additionalPropertiesValueClassName, JavaWriter writer) throws IOException {
+		String additionalPropertiesDeserializerFieldName = JacksonStreamingCode.getDeserializerFieldName("additionalPropertiesMap");
+
+		writer.writeJavadoc("Deserializer reading {@link " + generatedClassName.getRawClassName() + "} directly from the token stream");
+		writer.writeIndent();
+		writer.write("public static class " + JacksonStreamingCode.DESERIALIZER_CLASS_NAME + " extends ");
+		writer.writeClassName(ClassName.create(JsonDeserializer.class, generatedClassName));
+		writer.write(" {\n");
+		writer.pushIndentLevel();
+		try {
+			for (PojoPropertyGenerator propertyGenerator : propertyGenerators) {
+				propertyGenerator.generateDeserializerFields(writer);
+			}
+			if (additionalPropertiesValueClassName != null) {
+				JacksonStreamingCode.writeDeserializerField(writer, additionalPropertiesDeserializerFieldName);
+			}
+
+			writer.writeAnnotation(ClassName.create(Override.class));
+			writer.writeAnnotation(ClassName.create(SuppressWarnings.class), "\"unchecked\"");
+			writer.writeIndent();
+			writer.write("public ");
+			writer.writeClassName(generatedClassName);
+			writer.write(" deserialize(");
+			writer.writeClassName(ClassName.create(JsonParser.class));
+			writer.write(" p, ");
+			writer.writeClassName(ClassName.create(DeserializationContext.class));
+			writer.write(" ctxt) throws ");
+			writer.writeClassName(ClassName.create(IOException.class));
+			writer.write(" {\n");
+			writer.pushIndentLevel();
+
+			String rawClassName = generatedClassName.getRawClassName();
+			writer.writeCode(
+				"JsonToken token = p.getCurrentToken();",
+				"if (token == JsonToken.START_OBJECT) {",
+				"\ttoken = p.nextToken();",
+				"}",
+				rawClassName + " result = new " + rawClassName + "();",
+				"for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {");
+			writer.pushIndentLevel();
+			writer.writeCode(
+				"String name = p.getCurrentName();",
+				"token = p.nextToken();",
+				"switch (name) {");
+			for (PojoPropertyGenerator propertyGenerator : propertyGenerators) {
+				propertyGenerator.generateDeserializerCase(writer, "result");
+			}
+			writer.writeCode("default:");
+			writer.pushIndentLevel();
+			if (additionalPropertiesValueClassName != null) {
+				JacksonStreamingCode.writeDeserializerLookup(writer, additionalPropertiesValueClassName, additionalPropertiesDeserializerFieldName);
+				writer.writeIndent();
+				writer.write("result.additionalPropertiesMap.put(name, ");
+				JacksonStreamingCode.writeReadValue(writer, additionalPropertiesValueClassName, additionalPropertiesDeserializerFieldName);
+				writer.write(");\n");
+			} else {
+				writer.writeCode("p.skipChildren();");
+			}
+			writer.writeCode("break;");
+			writer.popIndentLevel();
+			writer.writeCode("}");
+			writer.popIndentLevel();
+			writer.writeCode(
+				"}",
+				"if (token != JsonToken.END_OBJECT) {",
+				"\tthrow ctxt.mappingException(" + rawClassName + ".class, token);",
+				"}",
+				"return result;");
+			writer.writeMethodBodyEnd();
+		} finally {
+			writer.popIndentLevel();
+			writer.writeCode("}");
+		}
+	}
+
+	/**
+	 * Generate a nested class that serializes the class into the Jackson token stream.
+	 *
+	 * The properties are written in schema order with pre-encoded names, followed by the entries of the
+	 * {@code additionalPropertiesMap}.
+	 *
+	 * @param generatedClassName
+	 * @param propertyGenerators
+	 * @param additionalPropertiesValueClassName
+	 * @param writer
+	 * @throws IOException
+	 */
+	protected void generateSerializer(ClassName generatedClassName, List<PojoPropertyGenerator> propertyGenerators, ClassName additionalPropertiesValueClassName, JavaWriter writer) throws IOException {
+		String additionalPropertiesSerializerFieldName = JacksonStreamingCode.getSerializerFieldName("additionalPropertiesMap");
+		Set<String> usedNameConstantNames = new HashSet<>();
+		Map<PojoPropertyGenerator, String> nameConstantNames = new LinkedHashMap<>();
+		for (PojoPropertyGenerator propertyGenerator : propertyGenerators) {
+			nameConstantNames.put(propertyGenerator, JacksonStreamingCode.getNameConstantName(propertyGenerator.getPropertyName(), usedNameConstantNames));
+		}
+
+		writer.writeJavadoc("Serializer writing {@link " + generatedClassName.getRawClassName() + "} directly into the token stream");
+		writer.writeIndent();
+		writer.write("public static class " + JacksonStreamingCode.SERIALIZER_CLASS_NAME + " extends ");
+		writer.writeClassName(ClassName.create(JsonSerializer.class, generatedClassName));
+		writer.write(" {\n");
+		writer.pushIndentLevel();
+		try {
+			for (Map.Entry<PojoPropertyGenerator, String> entry : nameConstantNames.entrySet()) {
+				entry.getKey().generateSerializerFields(writer, entry.getValue());
+			}
+			if (additionalPropertiesValueClassName != null) {
+				JacksonStreamingCode.writeSerializerField(writer, additionalPropertiesValueClassName, additionalPropertiesSerializerFieldName);
+			}
+
+			writer.writeAnnotation(ClassName.create(Override.class));
+			writer.writeIndent();
+			writer.write("public void serialize(");
+			writer.writeClassName(generatedClassName);
+			writer.write(" value, ");
+			writer.writeClassName(ClassName.create(JsonGenerator.class));
+			writer.write(" g, ");
+			writer.writeClassName(ClassName.create(SerializerProvider.class));
+			writer.write(" provider) throws ");
+			writer.writeClassName(ClassName.create(IOException.class));
+			writer.write(" {\n");
+			writer.pushIndentLevel();
+
+			writer.writeCode("g.writeStartObject();");
+			for (Map.Entry<PojoPropertyGenerator, String> entry : nameConstantNames.entrySet()) {
+				entry.getKey().generateSerializerCode(writer, "value", entry.getValue());
+			}
+			if (additionalPropertiesValueClassName != null) {
+				ClassName mapEntryClass = ClassName.create(Map.Entry.class, ClassName.create(String.class), additionalPropertiesValueClassName);
+				writer.writeIndent();
+				writer.write("for (");
+				writer.writeClassName(mapEntryClass);
+				writer.write(" entry : value.additionalPropertiesMap.entrySet()) {\n");
+				writer.pushIndentLevel();
+				writer.writeCode("g.writeFieldName(entry.getKey());");
+				writer.writeIndent();
+				writer.writeClassName(additionalPropertiesValueClassName);
+				writer.write(" entryValue = entry.getValue();\n");
+				JacksonStreamingCode.writeWriteValue(writer, additionalPropertiesValueClassName, "entryValue", additionalPropertiesSerializerFieldName);
+				writer.popIndentLevel();
+				writer.writeCode("}");
+			}
+			writer.writeCode("g.writeEndObject();");
+			writer.writeMethodBodyEnd();
+		} finally {
+			writer.popIndentLevel();
+			writer.writeCode("}");
+		}
+	}
 }
\ No newline at end of file
@@ -15,24 +15,38 @@
  */
 package com.collaborne.jsonschema.generator.pojo;
 
-import java.io.BufferedWriter;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.Stack;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.inject.Inject;
 
@@ -42,10 +56,16 @@ import org.slf4j.LoggerFactory;
 import com.collaborne.jsonschema.generator.AbstractGenerator;
 import com.collaborne.jsonschema.generator.CodeGenerationException;
 import com.collaborne.jsonschema.generator.MissingSchemaException;
+import com.collaborne.jsonschema.generator.compile.InMemorySourceCompiler;
 import com.collaborne.jsonschema.generator.java.ClassName;
+import com.collaborne.jsonschema.generator.java.ClassPathIndex;
 import com.collaborne.jsonschema.generator.java.JavaWriter;
 import com.collaborne.jsonschema.generator.java.Kind;
+import com.collaborne.jsonschema.generator.metrics.GenerationMetrics;
+import com.collaborne.jsonschema.generator.metrics.GenerationMetrics.Phase;
+import com.collaborne.jsonschema.generator.model.ManifestEntry;
 import com.collaborne.jsonschema.generator.model.Mapping;
+import com.collaborne.jsonschema.generator.output.OutputSink;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.github.fge.jackson.jsonpointer.JsonPointer;
 import com.github.fge.jackson.jsonpointer.JsonPointerException;
@@ -53,68 +73,99 @@ import com.github.fge.jsonschema.core.exceptions.ProcessingException;
 import com.github.fge.jsonschema.core.load.SchemaLoader;
 import com.github.fge.jsonschema.core.tree.SchemaTree;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.hash.HashCode;
 
+/**
+ * Generator for plain java objects.
+ *
+ * A single instance can be shared between threads: concurrent requests for the same type wait for the
+ * thread that generates it.
+ */
 // XXX: URI vs JsonRef vs SchemaKey
 public class PojoGenerator extends AbstractGenerator {
 	/** Attempt to write code even when there are some types missing */
 	public static final Feature<Boolean> FEATURE_IGNORE_MISSING_TYPES = new Feature<>("http://json-schema-bean-generator.collaborne.com/features/LATEST/pojo/ignore-missing-types", Boolean.class, Boolean.FALSE);
 
-	public enum AnonymousClassNameGenerator {
-		CAMEL_CASE {
-			@Override
-			public String createClassName(URI type) {
-				StringBuilder classNameBuilder = new StringBuilder();
-				if (type.getFragment().isEmpty()) {
-					classNameBuilder.append("Type");
-				} else {
-					// FIXME: This should be a different generator?
-					String fragment = type.getFragment().replace(':', '/');
-					for (String fragmentStep : fragment.split("/")) {
-						// Skip some typical steps to make the names a bit easier to read
-						// - "": happens due to JSON pointer always starting with '/'
-						// - "properties": any reference to an anonymous type inside an "object"
-						// - "definitions": suggested node for keeping type definitions
-						if (fragmentStep.isEmpty() || "properties".equals(fragmentStep) || "definitions".equals(fragmentStep)) {
-							continue;
-						}
-						
-						// Replace all characters not valid for Java
-						char fragmentStepFirstCharacter = Character.toUpperCase(fragmentStep.charAt(0));
-						String fragmentStepRemainingCharacters;
-						if (Character.isJavaIdentifierStart(fragmentStepFirstCharacter)) {
-							fragmentStepRemainingCharacters = fragmentStep.substring(1);
-						} else {
-							fragmentStepFirstCharacter = '_';
-							fragmentStepRemainingCharacters = fragmentStep;
-						}
-						fragmentStepRemainingCharacters = fragmentStepRemainingCharacters.replaceAll("[^\\p{javaJavaIdentifierPart}]", "");
-						
-						classNameBuilder.append(fragmentStepFirstCharacter);
-						classNameBuilder.append(fragmentStepRemainingCharacters);
-					}
-				}
+	/**
+	 * Strategy for naming the classes of types without a mapping.
+	 *
+	 * Implementations must be thread-safe, and should have a {@link Object#toString()} that is stable between runs.
+	 */
+	public interface AnonymousClassNameGenerator {
+		/** Concatenate the steps of the fragment, for example 'FooBar' for '#/properties/foo/properties/bar' */
+		AnonymousClassNameGenerator CAMEL_CASE = new FragmentClassNameGenerator("CAMEL_CASE", "");
+		/** Join the steps of the fragment with '$', for example 'Foo$Bar' for '#/properties/foo/properties/bar' */
+		AnonymousClassNameGenerator DOLLAR = new FragmentClassNameGenerator("DOLLAR", "$");
 
-				return classNameBuilder.toString();
-			}
-		}, 
-		DOLLAR {
-			@Override
-			public String createClassName(URI type) {
-				throw new UnsupportedOperationException("AnonymousClassNameGenerator#appendClassName() is not implemented");
-			}
-		};
-		
-		public abstract String createClassName(URI type);
+		String createClassName(URI type);
 	}
 	public static final Feature<AnonymousClassNameGenerator> FEATURE_CLASS_NAME_GENERATOR = new Feature<>("http://json-schema-bean-generator.collaborne.com/features/LATEST/pojo/class-name-generator", AnonymousClassNameGenerator.class, AnonymousClassNameGenerator.CAMEL_CASE);
 	/** Whether to ignore constraints (enum-ness, min/max value, etc) on non-"object" types */
 	public static final Feature<Boolean> FEATURE_USE_SIMPLE_PLAIN_TYPES = new Feature<>("http://json-schema-bean-generator.collaborne.com/features/LATEST/pojo/simple-plain-types", Boolean.class, Boolean.FALSE);
 	/** Whether to generate Java 5 {@code enum}s or 'class-with-constants' for JSON schema 'enum's */
 	public static final Feature<Kind> FEATURE_ENUM_STYLE = new Feature<>("http://json-schema-bean-generator.collaborne.com/features/LATEST/pojo/enum-style", Kind.class, Kind.ENUM);
+	/**
+	 * Whether {@link Kind#CLASS} enums should have canonical instances: the constructor is private, and a {@code valueOf()} method
+	 * returns the constant for known values, or a remembered instance for unknown ones.
+	 *
+	 * The instances cache their hash code, and {@code equals()} starts with an identity check.
+	 */
+	public static final Feature<Boolean> FEATURE_INTERN_CLASS_ENUMS = new Feature<>("http://json-schema-bean-generator.collaborne.com/features/LATEST/pojo/intern-class-enums", Boolean.class, Boolean.FALSE);
+	/**
+	 * Whether to use arrays such as {@code int[]} for "array"s with "integer", "number" or "boolean" items
+	 *
+	 * Otherwise these use a {@link java.util.List} of the boxed type.
+	 */
+	public static final Feature<Boolean> FEATURE_PRIMITIVE_ARRAYS = new Feature<>("http://json-schema-bean-generator.collaborne.com/features/LATEST/pojo/primitive-arrays", Boolean.class, Boolean.FALSE);
+	/**
+	 * Whether to skip types whose inputs did not change since the previous run, based on a manifest in the output directory (only for file system output)
+	 *
+	 * The class names of the previous run stay reserved for their types, so that new types cannot take over the files of skipped ones.
+	 * This makes the output differ from a full run when a new type wants a name that a type of the previous run had:
+	 * the new type gets a suffixed name, even if the other type no longer exists. Run without this feature to get the
+	 * plain names again.
+	 */
+	public static final Feature<Boolean> FEATURE_INCREMENTAL = new Feature<>("http://json-schema-bean-generator.collaborne.com/features/LATEST/pojo/incremental", Boolean.class, Boolean.FALSE, false);
+	/** Whether to delete the files of the previous run that were not produced again, based on the manifest in the output directory (only for file system output) */
+	public static final Feature<Boolean> FEATURE_PRUNE_STALE_FILES = new Feature<>("http://json-schema-bean-generator.collaborne.com/features/LATEST/pojo/prune-stale-files", Boolean.class, Boolean.FALSE, false);
+	/** Whether to leave files untouched when their content would not change */
+	public static final Feature<Boolean> FEATURE_WRITE_IF_CHANGED = new Feature<>("http://json-schema-bean-generator.collaborne.com/features/LATEST/pojo/write-if-changed", Boolean.class, Boolean.FALSE, false);
+
+	/**
+	 * Whether to generate a token-streaming Jackson deserializer for each "object" class, and register it with {@code @JsonDeserialize}
+	 *
+	 * The generated code then requires jackson-databind to compile.
+	 */
+	public static final Feature<Boolean> FEATURE_STREAMING_DESERIALIZERS = new Feature<>("http://json-schema-bean-generator.collaborne.com/features/LATEST/pojo/streaming-deserializers", Boolean.class, Boolean.FALSE);
+	/**
+	 * Whether to generate a Jackson serializer writing the properties in schema order for each "object" class, and register it with {@code @JsonSerialize}
+	 *
+	 * The generated code then requires jackson-databind to compile.
+	 */
+	public static final Feature<Boolean> FEATURE_STREAMING_SERIALIZERS = new Feature<>("http://json-schema-bean-generator.collaborne.com/features/LATEST/pojo/streaming-serializers", Boolean.class, Boolean.FALSE);
+
+	/**
+	 * Additional class path (separated by {@link java.io.File#pathSeparator}) with existing classes that should not get generated
+	 *
+	 * Changing the class path does not make {@link #FEATURE_INCREMENTAL} regenerate types: run a full generation when classes
+	 * for mapped types were added to or removed from it.
+	 */
+	public static final Feature<String> FEATURE_CLASS_PATH = new Feature<>("http://json-schema-bean-generator.collaborne.com/features/LATEST/pojo/class-path", String.class, "", false);
+	/** Number of threads for writing the generated sources in the background, {@code 0} writes each source before continuing with the next type */
+	public static final Feature<Integer> FEATURE_WRITE_THREADS = new Feature<>("http://json-schema-bean-generator.collaborne.com/features/LATEST/pojo/write-threads", Integer.class, Integer.valueOf(0), false);
+	/** Maximum number of generated sources waiting to be written by the {@link #FEATURE_WRITE_THREADS}, generation pauses when it is reached */
+	public static final Feature<Integer> FEATURE_MAX_PENDING_WRITES = new Feature<>("http://json-schema-bean-generator.collaborne.com/features/LATEST/pojo/max-pending-writes", Integer.class, Integer.valueOf(64), false);
+
+	/** Name of the manifest file in the output directory */
+	public static final String MANIFEST_FILE_NAME = ".json-schema-bean-generator.json";
+	/**
+	 * Name of the index of generated classes in the output, written with {@link #FEATURE_REPRODUCIBLE}.
+	 *
+	 * Each line contains the fully qualified name of a class and the SHA-256 of its source, separated by a space, sorted by
+	 * the class name.
+	 */
+	public static final String HASH_INDEX_FILE_NAME = ".json-schema-bean-generator.sha256";
 
-	/** Sentinel to detect a recursive generation early */
-	private static final ClassName IN_PROGRESS = new ClassName("internal", "IN_PROGRESS");
-	
 	private static class SimplePojoTypeGenerator implements PojoTypeGenerator {
 		private final ClassName className;
 		
@@ -128,13 +179,166 @@ public class PojoGenerator extends AbstractGenerator {
 		}
 	}
 	
+	/**
+	 * A single call to {@link #generateInternal(URI, SchemaTree, Mapping)}.
+	 */
+	private static class GenerationStep {
+		private final URI type;
+		/** Types requested while generating {@link #type} */
+		private final Set<URI> dependencies = new LinkedHashSet<>();
+		/** Files written for {@link #type}, relative to the output directory */
+		private final List<String> files = new ArrayList<>();
+
+		public GenerationStep(URI type) {
+			this.type = type;
+		}
+
+		@Override
+		public String toString() {
+			return type.toString();
+		}
+	}
+
+	/**
+	 * Chain of calls to {@link #generateInternal(URI, SchemaTree, Mapping)} in one thread.
+	 *
+	 * Used for logging, and for detecting recursion when the chain has to wait for a type that is generated by
+	 * a different chain.
+	 */
+	private static class GenerationChain {
+		private final Deque<GenerationStep> steps = new ArrayDeque<>();
+		/** The type this chain is waiting for, or {@code null} */
+		private volatile URI waitingFor;
+
+		@Override
+		public String toString() {
+			return steps.toString();
+		}
+	}
+
+	/**
+	 * Reusable buffer for the source of a class.
+	 *
+	 * The buffer collects the characters written by a {@link JavaWriter}, and encodes them once as UTF-8 into a direct
+	 * byte buffer that can be written to a file channel without further copies.
+	 */
 	@VisibleForTesting
-	protected static class Buffer extends ByteArrayOutputStream {
-		public InputStream getInputStream() {
-			return new ByteArrayInputStream(buf, 0, count);
+	protected static class Buffer extends Writer {
+		private static final int INITIAL_CAPACITY = 8192;
+
+		private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+			.onMalformedInput(CodingErrorAction.REPLACE)
+			.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		private char[] chars = new char[INITIAL_CAPACITY];
+		private int count;
+		private ByteBuffer bytes = ByteBuffer.allocateDirect(INITIAL_CAPACITY);
+		private boolean encoded;
+
+		@Override
+		public void write(int c) {
+			ensureCapacity(count + 1);
+			chars[count++] = (char) c;
+		}
+
+		@Override
+		public void write(char[] cbuf, int off, int len) {
+			ensureCapacity(count + len);
+			System.arraycopy(cbuf, off, chars, count, len);
+			count += len;
+		}
+
+		@Override
+		public void write(String str) {
+			write(str, 0, str.length());
+		}
+
+		@Override
+		public void write(String str, int off, int len) {
+			ensureCapacity(count + len);
+			str.getChars(off, off + len, chars, count);
+			count += len;
+		}
+
+		@Override
+		public void flush() {
+			// Nothing to flush
+		}
+
+		@Override
+		public void close() {
+			// Keep the content, the buffer gets reused through #reset()
+		}
+
+		/**
+		 * Get the number of characters written.
+		 *
+		 * @return
+		 */
+		public int size() {
+			return count;
+		}
+
+		/**
+		 * Get the UTF-8 encoded content.
+		 *
+		 * @return a read-only view of the content, valid until the buffer is reset
+		 */
+		public ByteBuffer getByteBuffer() {
+			if (!encoded) {
+				encode();
+			}
+			return bytes.asReadOnlyBuffer();
+		}
+
+		/**
+		 * Write the UTF-8 encoded content to {@code channel}.
+		 *
+		 * @param channel
+		 * @throws IOException
+		 */
+		public void writeTo(WritableByteChannel channel) throws IOException {
+			ByteBuffer content = getByteBuffer();
+			while (content.hasRemaining()) {
+				channel.write(content);
+			}
+		}
+
+		/**
+		 * Discard the content, so that the buffer can be used for the next class.
+		 */
+		public void reset() {
+			count = 0;
+			encoded = false;
+		}
+
+		private void ensureCapacity(int capacity) {
+			if (capacity > chars.length) {
+				chars = Arrays.copyOf(chars, Math.max(capacity, chars.length * 2));
+			}
+			encoded = false;
+		}
+
+		private void encode() {
+			int maxBytes = (int) Math.ceil(count * (double) encoder.maxBytesPerChar());
+			if (maxBytes > bytes.capacity()) {
+				bytes = ByteBuffer.allocateDirect(Math.max(maxBytes, bytes.capacity() * 2));
+			}
+			bytes.clear();
+			encoder.reset();
+			CharBuffer input = CharBuffer.wrap(chars, 0, count);
+			CoderResult result = encoder.encode(input, bytes, true);
+			if (!result.isUnderflow()) {
+				throw new IllegalStateException("Cannot encode source: " + result);
+			}
+			encoder.flush(bytes);
+			bytes.flip();
+			encoded = true;
 		}
 	}
-	
+
+	/** Maximum number of characters of a buffer that gets returned into the pool */
+	private static final int MAX_POOLED_BUFFER_SIZE = 1024 * 1024;
+
 	private static final List<String> PRIMITIVE_TYPE_NAMES = Arrays.asList(
 		Boolean.TYPE.getName(),
 		Character.TYPE.getName(),
@@ -149,10 +353,23 @@ public class PojoGenerator extends AbstractGenerator {
 	private final Logger logger = LoggerFactory.getLogger(PojoGenerator.class);
 	
 	private final Map<String, PojoTypeGenerator> typeGenerators = new HashMap<>();
-	private final Map<URI, ClassName> generatedClassNames = new HashMap<>();
-	private final Set<URI> nullTypes = new HashSet<>();
-	/** Stack of calls to {@link #generateInternal(URI, Mapping)}, used for logging */
-	private final Stack<URI> generationStack = new Stack<>();
+	/** Generated and in-progress types, a type with value {@code "null"} for the 'type' keyword completes with {@code null} */
+	private final ConcurrentMap<URI, CompletableFuture<ClassName>> generatedClassNames = new ConcurrentHashMap<>();
+	/** Chains currently generating a type */
+	private final ConcurrentMap<URI, GenerationChain> generatingChains = new ConcurrentHashMap<>();
+	private final ThreadLocal<GenerationChain> generationChain = ThreadLocal.withInitial(GenerationChain::new);
+	/** Lock for updating {@link GenerationChain#waitingFor}, so that two chains cannot start waiting for each other at the same time */
+	private final Object waitingForLock = new Object();
+	private final ClassNameRegistry classNameRegistry = new ClassNameRegistry();
+	private volatile ManifestTracker manifestTracker;
+	private volatile ClassPathIndex classPathIndex;
+	private volatile WriteQueue writeQueue;
+	/** Buffers for generating classes, generating is recursive so each thread may need several at a time */
+	private final Deque<Buffer> buffers = new ConcurrentLinkedDeque<>();
+	/** SHA-256 of the generated sources by class name, for the {@link #HASH_INDEX_FILE_NAME} */
+	private final ConcurrentMap<String, String> sourceHashes = new ConcurrentSkipListMap<>();
+	private final AtomicInteger writtenFileCount = new AtomicInteger();
+	private final AtomicInteger skippedFileCount = new AtomicInteger();
 	
 	@Inject
 	@VisibleForTesting
@@ -179,84 +396,296 @@ public class PojoGenerator extends AbstractGenerator {
 		// "alias", i.e. the schema only contains a "$ref" to another place. In this case we want to follow
 		// the ref, until we find a mapping or an actual schema.
 		// At any point in this search we may find that we already processed this type (either generated a class,
-		// or could use an existing one.)
+		// or could use an existing one), or that some other thread is currently processing it.
 
-		// Find or create the mapping for this type
+		GenerationChain chain = generationChain.get();
+		if (!chain.steps.isEmpty()) {
+			chain.steps.getLast().dependencies.add(wantedType);
+		}
+
+		// Find the mapping for this type
 		URI type = wantedType;
-		Mapping mapping;
-		SchemaTree schema;
-		do {
-			// Check if we have processed this type
-			if (nullTypes.contains(type)) {
-				return null;
-			}
-			ClassName generatedClassName = generatedClassNames.get(type);
-			if (generatedClassName != null) {
-				if (IN_PROGRESS.equals(generatedClassName)) {
-					// XXX: The stack here doesn't contain the intermediate steps
-					throw new CodeGenerationException(type, "Recursion detection while generating code for " + wantedType + ": " + generationStack);
+		Mapping mapping = null;
+		SchemaTree schema = null;
+		CompletableFuture<ClassName> generatedClassName;
+		try (GenerationMetrics.Timer timer = getMetrics().start(Phase.REF_RESOLUTION, wantedType)) {
+			while (true) {
+				// Check if we have processed this type
+				generatedClassName = generatedClassNames.get(type);
+				if (generatedClassName != null) {
+					break;
 				}
-				return generatedClassName;
-			}
 
-			mapping = getMapping(type);
-			// Look up the schema, it should exist.
-			try {
-				schema = getSchema(getSchemaLoader(), type);
-				if (schema == null || schema.getNode() == null) {
-					throw new MissingSchemaException(type);
+				mapping = getMapping(type);
+				// Look up the schema, it should exist.
+				try {
+					schema = getSchema(getSchemaLoader(), type);
+					if (schema == null || schema.getNode() == null) {
+						throw new MissingSchemaException(type);
+					}
+				} catch (ProcessingException e) {
+					throw new MissingSchemaException(type, e);
 				}
-			} catch (ProcessingException e) {
-				throw new MissingSchemaException(type, e);
-			}
 
-			if (mapping == null) {
-				if (schema.getNode().hasNonNull("$ref")) {
-					// Schema is actually a $ref, follow it
-					String ref = schema.getNode().get("$ref").textValue();
-					logger.debug("{}: Following $ref to {}", type, ref);
-					// This URI can be relative to the current schema, so we need to properly
-					// resolve it here.
-					// FIXME: same loading ref problem as everywhere else!
-					type = schema.getLoadingRef().toURI().resolve(ref);
-				} else {
-					// Schema is not a $ref, and we do not have a specific mapping
-					// for it.
-					// Generate one.
-					logger.debug("{}: Defining new mapping", type);
-					mapping = generateMapping(type);
-					addMapping(type, mapping);
+				if (mapping != null || !schema.getNode().hasNonNull("$ref")) {
+					break;
 				}
+
+				// Schema is actually a $ref, follow it
+				String ref = schema.getNode().get("$ref").textValue();
+				logger.debug("{}: Following $ref to {}", type, ref);
+				// This URI can be relative to the current schema, so we need to properly
+				// resolve it here.
+				// FIXME: same loading ref problem as everywhere else!
+				type = schema.getLoadingRef().toURI().resolve(ref);
 			}
-		} while (mapping == null);
+		}
+		if (generatedClassName != null) {
+			return awaitGeneratedClassName(wantedType, type, generatedClassName);
+		}
 
-		ClassName result;
 		// Mark the type as "in progress", as we're now going to actually work with it.
-		generationStack.push(type);
+		// If some other thread was faster, wait for that one instead.
+		CompletableFuture<ClassName> result = new CompletableFuture<>();
+		CompletableFuture<ClassName> existingResult = generatedClassNames.putIfAbsent(type, result);
+		if (existingResult != null) {
+			return awaitGeneratedClassName(wantedType, type, existingResult);
+		}
+
+		GenerationStep step = new GenerationStep(type);
+		chain.steps.addLast(step);
+		generatingChains.put(type, chain);
 		try {
-			generatedClassNames.put(type, IN_PROGRESS);
+			ManifestTracker manifestTracker = getManifestTracker();
+			Mapping userMapping = mapping;
+			// Reproducible output needs the content of every source for the hash index, and the source compiler needs every
+			// source to produce the complete set of classes, so in these cases nothing can be skipped
+			if (manifestTracker != null && getFeature(FEATURE_INCREMENTAL) && !getFeature(FEATURE_REPRODUCIBLE) && getSourceCompiler() == null) {
+				ManifestEntry unchangedEntry = manifestTracker.findUnchanged(type, schema, userMapping);
+				if (unchangedEntry != null) {
+					logger.debug("{}: Unchanged, using {}", type, unchangedEntry.getClassName());
+					getMetrics().recordSkippedType();
+					result.complete(unchangedEntry.getClassName());
+					return unchangedEntry.getClassName();
+				}
+			}
+
+			if (mapping == null) {
+				// Schema is not a $ref, and we do not have a specific mapping
+				// for it.
+				// Generate one.
+				logger.debug("{}: Defining new mapping", type);
+				mapping = generateMapping(type);
+				addMapping(type, mapping);
+			} else if (mapping.getGeneratedClassName() != null) {
+				classNameRegistry.register(mapping.getGeneratedClassName(), type);
+			}
+
+			ClassName className;
+			boolean failed = false;
 			try {
-				result = generateInternal(type, schema, mapping);
+				className = generateInternal(type, schema, mapping);
 			} catch (CodeGenerationException e) {
-				logger.error("{}: Exception while generating, source: {}", type, generationStack);
+				logger.error("{}: Exception while generating, source: {}", type, chain);
 				if (getFeature(FEATURE_IGNORE_MISSING_TYPES)) {
 					// Assume that a class would have been created.
-					result = mapping.getClassName();
-					logger.warn("{}: Ignoring creation failure, assuming class {} would have been created", type, result, e);
+					className = mapping.getClassName();
+					failed = true;
+					logger.warn("{}: Ignoring creation failure, assuming class {} would have been created", type, className, e);
 				} else {
 					throw e;
 				}
 			}
 
-			if (result == null) {
-				nullTypes.add(type);
-				generatedClassNames.remove(type);
-			} else {
-				generatedClassNames.put(type, result);
+			if (className != null) {
+				classNameRegistry.register(className, type);
+			}
+			if (manifestTracker != null && !failed) {
+				manifestTracker.record(type, schema, userMapping, className, step.dependencies, step.files);
 			}
-			return result;
+			result.complete(className);
+			return className;
+		} catch (CodeGenerationException|RuntimeException e) {
+			// Release anyone waiting for us
+			result.completeExceptionally(e);
+			throw e;
 		} finally {
-			generationStack.pop();
+			generatingChains.remove(type);
+			chain.steps.removeLast();
+		}
+	}
+
+	/**
+	 * Get the tracker for the manifest, if {@link #FEATURE_INCREMENTAL} or {@link #FEATURE_PRUNE_STALE_FILES} is enabled.
+	 *
+	 * @return the tracker, or {@code null}
+	 */
+	private ManifestTracker getManifestTracker() {
+		if ((!getFeature(FEATURE_INCREMENTAL) && !getFeature(FEATURE_PRUNE_STALE_FILES)) || getOutputDirectory() == null) {
+			return null;
+		}
+
+		ManifestTracker result = manifestTracker;
+		if (result == null) {
+			synchronized (this) {
+				result = manifestTracker;
+				if (result == null) {
+					ManifestTracker.TypeResolver typeResolver = new ManifestTracker.TypeResolver() {
+						@Override
+						public SchemaTree getSchema(URI type) throws ProcessingException {
+							return PojoGenerator.this.getSchema(getSchemaLoader(), type);
+						}
+
+						@Override
+						public Mapping getMapping(URI type) {
+							return PojoGenerator.this.getMapping(type);
+						}
+					};
+					Path manifestFile = getOutputDirectory().resolve(MANIFEST_FILE_NAME);
+					result = new ManifestTracker(manifestFile, getOutputDirectory(), typeResolver, describeConfiguration());
+					// Keep the names of the previous run, so that new types cannot take over files of unchanged types.
+					// See FEATURE_INCREMENTAL: new types colliding with these get suffixed names, unlike in a full run.
+					for (Map.Entry<ClassName, URI> entry : result.getPreviousClassNames().entrySet()) {
+						classNameRegistry.register(entry.getKey(), entry.getValue());
+					}
+					manifestTracker = result;
+				}
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public void finish() throws IOException, CodeGenerationException {
+		WriteQueue writeQueue;
+		synchronized (this) {
+			writeQueue = this.writeQueue;
+			this.writeQueue = null;
+		}
+		if (writeQueue != null) {
+			try {
+				writeQueue.awaitCompletion();
+			} finally {
+				writeQueue.shutdown();
+			}
+		}
+
+		if (getFeature(FEATURE_REPRODUCIBLE)) {
+			writeHashIndex();
+		}
+
+		super.finish();
+
+		ManifestTracker manifestTracker = this.manifestTracker;
+		if (manifestTracker != null) {
+			if (getFeature(FEATURE_PRUNE_STALE_FILES)) {
+				int deletedFileCount = manifestTracker.pruneStaleFiles();
+				logger.info("Deleted {} stale files", deletedFileCount);
+			}
+			manifestTracker.writeManifest();
+		}
+		logger.info("Wrote {} files, skipped {} unchanged files", writtenFileCount.get(), skippedFileCount.get());
+	}
+
+	private void writeHashIndex() throws IOException {
+		OutputSink outputSink = getOutputSink();
+		if (outputSink == null) {
+			return;
+		}
+
+		StringBuilder sb = new StringBuilder();
+		for (Map.Entry<String, String> entry : sourceHashes.entrySet()) {
+			sb.append(entry.getKey()).append(' ').append(entry.getValue()).append('\n');
+		}
+		ByteBuffer content = StandardCharsets.UTF_8.encode(sb.toString());
+		if (!getFeature(FEATURE_WRITE_IF_CHANGED)) {
+			outputSink.write(HASH_INDEX_FILE_NAME, content);
+		} else {
+			outputSink.writeIfChanged(HASH_INDEX_FILE_NAME, content);
+		}
+
+		recordProducedFile(HASH_INDEX_FILE_NAME);
+		logger.info("Wrote hash index for {} classes", sourceHashes.size());
+	}
+
+	/**
+	 * Record that {@code fileName} was produced in this run, so that {@link #FEATURE_PRUNE_STALE_FILES} keeps it.
+	 *
+	 * @param fileName name of the file, relative to the output directory
+	 */
+	private void recordProducedFile(String fileName) {
+		ManifestTracker manifestTracker = getManifestTracker();
+		if (manifestTracker != null) {
+			manifestTracker.recordFile(fileName);
+		}
+	}
+
+	/**
+	 * Get the number of source files written.
+	 *
+	 * @return
+	 */
+	public int getWrittenFileCount() {
+		return writtenFileCount.get();
+	}
+
+	/**
+	 * Get the number of source files that were not written because their content did not change.
+	 *
+	 * @return
+	 * @see #FEATURE_WRITE_IF_CHANGED
+	 */
+	public int getSkippedFileCount() {
+		return skippedFileCount.get();
+	}
+
+	/**
+	 * Wait for the generation of {@code type} to complete.
+	 *
+	 * @param wantedType the type originally requested
+	 * @param type
+	 * @param generatedClassName
+	 * @return the name of the generated class
+	 * @throws CodeGenerationException if the generation failed, or if waiting would never end because the generation
+	 * is waiting for the current chain
+	 */
+	private ClassName awaitGeneratedClassName(URI wantedType, URI type, CompletableFuture<ClassName> generatedClassName) throws CodeGenerationException {
+		if (generatedClassName.isDone()) {
+			return joinGeneratedClassName(generatedClassName);
+		}
+
+		GenerationChain chain = generationChain.get();
+		synchronized (waitingForLock) {
+			// Follow the types the chains are waiting for: if this leads back to our chain we found a recursion.
+			URI next = type;
+			while (next != null) {
+				GenerationChain owner = generatingChains.get(next);
+				if (owner == null) {
+					break;
+				} else if (owner == chain) {
+					// XXX: The stack here doesn't contain the intermediate steps
+					throw new CodeGenerationException(type, "Recursion detection while generating code for " + wantedType + ": " + chain);
+				}
+				next = owner.waitingFor;
+			}
+			chain.waitingFor = type;
+		}
+
+		try {
+			return joinGeneratedClassName(generatedClassName);
+		} finally {
+			chain.waitingFor = null;
+		}
+	}
+
+	private ClassName joinGeneratedClassName(CompletableFuture<ClassName> generatedClassName) throws CodeGenerationException {
+		try {
+			return generatedClassName.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof CodeGenerationException) {
+				throw (CodeGenerationException) e.getCause();
+			}
+			throw e;
 		}
 	}
 	
@@ -280,9 +709,13 @@ public class PojoGenerator extends AbstractGenerator {
 
 		try {
 			// 2. Determine the type of the schema
-			String schemaType = getSchemaType(type, schema);
+			String schemaType;
+			try (GenerationMetrics.Timer timer = getMetrics().start(Phase.SCHEMA_TYPE, type)) {
+				schemaType = getSchemaType(type, schema);
+			}
 			if ("null".equals(schemaType)) {
 				// All good, nothing to be done.
+				getMetrics().recordNullType();
 				return null;
 			}
 			
@@ -298,13 +731,37 @@ public class PojoGenerator extends AbstractGenerator {
 			// If the generator doesn't actually produce output (for example because it resolved the class differently),
 			// then we do not have to do anything further.
 			ClassName className;
-			try (Buffer buffer = new Buffer()) {
-				try (JavaWriter writer = new JavaWriter(new BufferedWriter(new OutputStreamWriter(buffer)))) {
+			Buffer buffer = acquireBuffer();
+			boolean bufferQueued = false;
+			try {
+				try (GenerationMetrics.Timer timer = getMetrics().start(Phase.TYPE_GENERATION, type);
+					JavaWriter writer = new JavaWriter(buffer)) {
 					className = typeGenerator.generate(codeGenerationContext, schema, writer);
 				}
 
 				if (buffer.size() > 0) {
-					writeSource(type, className, buffer);
+					getMetrics().recordGeneratedType(buffer.size());
+					recordOutputFile(type, getClassSourceFileName(className));
+
+					WriteQueue writeQueue = getWriteQueue();
+					if (writeQueue == null) {
+						writeSource(type, className, buffer);
+					} else {
+						// The queued write owns the buffer, and returns it into the pool when done
+						ClassName writtenClassName = className;
+						writeQueue.submit(type, () -> {
+							try {
+								writeSource(type, writtenClassName, buffer);
+							} finally {
+								releaseBuffer(buffer);
+							}
+						});
+						bufferQueued = true;
+					}
+				}
+			} finally {
+				if (!bufferQueued) {
+					releaseBuffer(buffer);
 				}
 			}
 			
@@ -314,6 +771,19 @@ public class PojoGenerator extends AbstractGenerator {
 		}
 	}
 
+	private Buffer acquireBuffer() {
+		Buffer buffer = buffers.pollFirst();
+		return buffer != null ? buffer : new Buffer();
+	}
+
+	private void releaseBuffer(Buffer buffer) {
+		// Drop buffers that grew for an unusually large class, instead of keeping that memory around
+		if (buffer.size() <= MAX_POOLED_BUFFER_SIZE) {
+			buffer.reset();
+			buffers.offerFirst(buffer);
+		}
+	}
+
 	@VisibleForTesting
 	protected String getSchemaType(URI type, SchemaTree schema) throws CodeGenerationException {
 		String schemaType;
@@ -361,50 +831,163 @@ public class PojoGenerator extends AbstractGenerator {
 			fqcn += ".";
 		}
 		fqcn += className.getRawClassName();
-		// We're using the canonical name, which cannot be used with #forName() with
+		// We're using the canonical name, which cannot be used for the index lookup with
 		// inner classes ('.' would have to be replaced by '$'). So this one tries with the
 		// given name, and then replaces each '.' from the end to see if this ClassName
 		// refers to an inner class.
 		// Note that if this ClassName was created from an actual java.lang.Class we could trust
 		// the package information, and skip replacing in that, but that would fail for
 		// ClassNames created using #parse().
+		ClassPathIndex index = getClassPathIndex();
 		int end = fqcn.length();
 		do {
-			try {
-				Class.forName(fqcn);
+			if (index.contains(fqcn)) {
 				return true;
-			} catch (ClassNotFoundException e) {
-				// Try replacing the next dot
-				int next = fqcn.lastIndexOf('.', end);
-				if (next != -1) {
-					fqcn = fqcn.substring(0, next) + '$' + fqcn.substring(next + 1);
-				}
-				end = next;
 			}
+
+			// Try replacing the next dot
+			int next = fqcn.lastIndexOf('.', end);
+			if (next != -1) {
+				fqcn = fqcn.substring(0, next) + '$' + fqcn.substring(next + 1);
+			}
+			end = next;
 		} while (end != -1);
 		return false;
 	}
 
+	/**
+	 * Get the index of the existing classes, including the {@link #FEATURE_CLASS_PATH}.
+	 *
+	 * @return
+	 */
+	private ClassPathIndex getClassPathIndex() {
+		ClassPathIndex result = classPathIndex;
+		if (result == null) {
+			synchronized (this) {
+				result = classPathIndex;
+				if (result == null) {
+					result = ClassPathIndex.getSystemClassPathIndex();
+					List<Path> classPath = ClassPathIndex.parseClassPath(getFeature(FEATURE_CLASS_PATH));
+					if (!classPath.isEmpty()) {
+						result = new ClassPathIndex(result, classPath);
+					}
+					classPathIndex = result;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Get the queue for writing sources in the background, if {@link #FEATURE_WRITE_THREADS} is enabled.
+	 *
+	 * @return the queue, or {@code null}
+	 */
+	private WriteQueue getWriteQueue() {
+		int writeThreads = getFeature(FEATURE_WRITE_THREADS);
+		if (writeThreads <= 0) {
+			return null;
+		}
+
+		WriteQueue result = writeQueue;
+		if (result == null) {
+			synchronized (this) {
+				result = writeQueue;
+				if (result == null) {
+					result = new WriteQueue(writeThreads, getFeature(FEATURE_MAX_PENDING_WRITES));
+					writeQueue = result;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Write the source of {@code className}.
+	 *
+	 * With {@link #FEATURE_WRITE_THREADS} this is invoked from a write thread.
+	 *
+	 * @param type
+	 * @param className
+	 * @param buffer
+	 * @throws IOException
+	 */
 	@VisibleForTesting
 	protected void writeSource(URI type, ClassName className, Buffer buffer) throws IOException {
 		// Create the file based on the className in the mapping
-		Path outputFile = getClassSourceFile(className);
-		logger.info("{}: Writing {}", type, outputFile);
+		String classFileName = getClassSourceFileName(className);
+		if (getFeature(FEATURE_REPRODUCIBLE)) {
+			sourceHashes.put(getQualifiedClassName(className), sha256(buffer.getByteBuffer()));
+		}
+		try (GenerationMetrics.Timer timer = getMetrics().start(Phase.WRITE_SOURCE, classFileName)) {
+			ByteBuffer content = buffer.getByteBuffer();
+			// Sinks may consume the content
+			int size = content.remaining();
+			if (!getFeature(FEATURE_WRITE_IF_CHANGED)) {
+				logger.info("{}: Writing {}", type, classFileName);
+				getOutputSink().write(classFileName, content);
+				writtenFileCount.incrementAndGet();
+				getMetrics().recordEmittedBytes(size);
+			} else if (getOutputSink().writeIfChanged(classFileName, content)) {
+				logger.info("{}: Writing {}", type, classFileName);
+				writtenFileCount.incrementAndGet();
+				getMetrics().recordEmittedBytes(size);
+			} else {
+				logger.debug("{}: {} is unchanged", type, classFileName);
+				skippedFileCount.incrementAndGet();
+			}
+		}
 
-		// Write stuff into it
-		Files.createDirectories(outputFile.getParent());
-		Files.copy(buffer.getInputStream(), outputFile, StandardCopyOption.REPLACE_EXISTING);
+		InMemorySourceCompiler sourceCompiler = getSourceCompiler();
+		if (sourceCompiler != null) {
+			sourceCompiler.addSource(classFileName, buffer.getByteBuffer(), type);
+		}
+	}
+
+	/**
+	 * Record that {@code fileName} was written for the {@code type} that is currently generated.
+	 *
+	 * @param type
+	 * @param fileName name of the file, relative to the output directory
+	 */
+	protected void recordOutputFile(URI type, String fileName) {
+		GenerationStep step = generationChain.get().steps.peekLast();
+		if (step != null && step.type.equals(type)) {
+			step.files.add(fileName);
+		}
+		recordProducedFile(fileName);
 	}
 	
-	protected Path getClassSourceFile(ClassName className) {
+	/**
+	 * Get the name of the source file for {@code className}, relative to the output directory.
+	 *
+	 * @param className
+	 * @return
+	 */
+	protected String getClassSourceFileName(ClassName className) {
+		return getQualifiedClassName(className).replace('.', '/') + ".java";
+	}
+
+	private static String getQualifiedClassName(ClassName className) {
 		StringBuilder fqcnBuilder = new StringBuilder();
 		if (!className.getPackageName().isEmpty()) {
 			fqcnBuilder.append(className.getPackageName());
 			fqcnBuilder.append(".");
 		}
 		fqcnBuilder.append(className.getRawClassName());
-		String classFileName = fqcnBuilder.toString().replace('.', '/') + ".java";
-		return getOutputDirectory().resolve(classFileName);
+		return fqcnBuilder.toString();
+	}
+
+	private static String sha256(ByteBuffer content) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			// Every Java platform must support SHA-256
+			throw new IllegalStateException(e);
+		}
+		digest.update(content);
+		return HashCode.fromBytes(digest.digest()).toString();
 	}
 	
 	@VisibleForTesting
@@ -422,11 +1005,7 @@ public class PojoGenerator extends AbstractGenerator {
 		// TODO: should produce ClassName directly
 		AnonymousClassNameGenerator classNameGenerator = getFeature(FEATURE_CLASS_NAME_GENERATOR);
 		String rawClassName = classNameGenerator.createClassName(type);
-		ClassName className = new ClassName(packageName, rawClassName);
-		while (generatedClassNames.containsValue(className)) {
-			// Make the name reasonably unique by adding a timestamp
-			className = new ClassName(packageName, rawClassName + "$" + System.nanoTime());
-		}
+		ClassName className = classNameRegistry.registerUnique(type, packageName, rawClassName);
 		mapping.setClassName(className);
 		return mapping;
 	}
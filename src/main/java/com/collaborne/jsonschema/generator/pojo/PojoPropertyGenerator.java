@@ -26,4 +26,48 @@ interface PojoPropertyGenerator {
 	void generateFields(JavaWriter writer) throws IOException;
 	void generateGetter(JavaWriter writer) throws IOException;
 	void generateSetter(JavaWriter writer) throws IOException;
+
+	/**
+	 * Generate the fields needed by {@link #generateDeserializerCase(JavaWriter, String)} in the streaming deserializer.
+	 *
+	 * @param writer
+	 * @throws IOException
+	 * @see PojoGenerator#FEATURE_STREAMING_DESERIALIZERS
+	 */
+	void generateDeserializerFields(JavaWriter writer) throws IOException;
+
+	/**
+	 * Generate the {@code case} for this property in the streaming deserializer.
+	 *
+	 * The parser {@code p} is positioned at the value, which must be stored into the object in {@code resultName}.
+	 *
+	 * @param writer
+	 * @param resultName
+	 * @throws IOException
+	 * @see PojoGenerator#FEATURE_STREAMING_DESERIALIZERS
+	 */
+	void generateDeserializerCase(JavaWriter writer, String resultName) throws IOException;
+
+	/**
+	 * Generate the fields needed by {@link #generateSerializerCode(JavaWriter, String, String)} in the streaming serializer.
+	 *
+	 * The pre-encoded name of the property goes into the constant {@code nameConstantName}, which is unique within the serializer.
+	 *
+	 * @param writer
+	 * @param nameConstantName
+	 * @throws IOException
+	 * @see PojoGenerator#FEATURE_STREAMING_SERIALIZERS
+	 */
+	void generateSerializerFields(JavaWriter writer, String nameConstantName) throws IOException;
+
+	/**
+	 * Generate the code writing this property of the object in {@code valueName} in the streaming serializer.
+	 *
+	 * @param writer
+	 * @param valueName
+	 * @param nameConstantName
+	 * @throws IOException
+	 * @see PojoGenerator#FEATURE_STREAMING_SERIALIZERS
+	 */
+	void generateSerializerCode(JavaWriter writer, String valueName, String nameConstantName) throws IOException;
 }
\ No newline at end of file
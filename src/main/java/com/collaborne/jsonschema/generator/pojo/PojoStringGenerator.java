@@ -16,13 +16,17 @@
 package com.collaborne.jsonschema.generator.pojo;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import com.collaborne.jsonschema.generator.CodeGenerationException;
 import com.collaborne.jsonschema.generator.java.ClassName;
@@ -44,6 +48,8 @@ public class PojoStringGenerator extends AbstractPojoTypeGenerator {
 	private static abstract class AbstractEnumGenerator implements EnumGenerator {
 		private final ClassName className;
 		private final Visibility constructorVisibility;
+		/** Names of the generated constants by value, in schema order */
+		private final Map<String, String> constantNames = new LinkedHashMap<>();
 
 		protected AbstractEnumGenerator(ClassName className, Visibility constructorVisibility) {
 			this.className = className;
@@ -54,6 +60,22 @@ public class PojoStringGenerator extends AbstractPojoTypeGenerator {
 			return className;
 		}
 
+		/**
+		 * Register an enum value.
+		 *
+		 * @param value
+		 * @return the name of the constant for the value
+		 */
+		protected String addEnumValue(String value) {
+			String constantName = value.toUpperCase(Locale.ENGLISH);
+			constantNames.put(value, constantName);
+			return constantName;
+		}
+
+		protected Map<String, String> getConstantNames() {
+			return constantNames;
+		}
+
 		@Override
 		public void generateImports(JavaWriter writer) throws IOException {
 			// Nothing by default
@@ -64,11 +86,11 @@ public class PojoStringGenerator extends AbstractPojoTypeGenerator {
 			ClassName stringClassName = ClassName.create(String.class);
 
 			writer.writeEmptyLine();
-			writer.writeField(Visibility.PRIVATE, EnumSet.of(Modifier.FINAL), stringClassName, "value", Block.empty());
+			generateFields(writer);
 
 			// Create the constructor
 			writer.writeConstructorBodyStart(constructorVisibility, getClassName(), stringClassName, "value");
-			writer.writeCode("this.value = value;");
+			generateConstructorCode(writer);
 			writer.writeMethodBodyEnd();
 
 			// Create an accessor for the value
@@ -82,26 +104,59 @@ public class PojoStringGenerator extends AbstractPojoTypeGenerator {
 			writer.writeCode("return getValue();");
 			writer.writeMethodBodyEnd();
 
-			// Create a #parse() method
-			writer.writeMethodBodyStart(Visibility.PUBLIC, EnumSet.of(Modifier.STATIC), className, "parse", stringClassName, "stringValue");
+			generateParse(writer);
+		}
+
+		protected void generateFields(JavaWriter writer) throws IOException {
+			writer.writeField(Visibility.PRIVATE, EnumSet.of(Modifier.FINAL), ClassName.create(String.class), "value", Block.empty());
+		}
+
+		protected void generateConstructorCode(JavaWriter writer) throws IOException {
+			writer.writeCode("this.value = value;");
+		}
+
+		/**
+		 * Create a #parse() method.
+		 *
+		 * The method uses a {@code switch} on the value, which the compiler turns into a lookup on the hash code of the value
+		 * instead of comparing it with each constant in turn.
+		 *
+		 * @param writer
+		 * @throws IOException
+		 */
+		protected void generateParse(JavaWriter writer) throws IOException {
+			writer.writeMethodBodyStart(Visibility.PUBLIC, EnumSet.of(Modifier.STATIC), className, "parse", ClassName.create(String.class), "stringValue");
 			writer.writeCode(
-					"for (" + className + " value : values()) {",
-					"\tif (value.value.equals(stringValue)) {",
-					"\t\treturn value;",
-					"\t}",
+					"if (stringValue == null) {",
+					"\tthrow new IllegalArgumentException(\"Unknown value \" + stringValue);",
 					"}",
-					"throw new IllegalArgumentException(\"Unknown value \" + stringValue);"
-					);
+					"switch (stringValue) {");
+			for (Map.Entry<String, String> entry : constantNames.entrySet()) {
+				writer.writeCode(
+						"case " + JavaWriter.toStringLiteral(entry.getKey()) + ":",
+						"\treturn " + entry.getValue() + ";");
+			}
+			writer.writeCode(
+					"default:",
+					"\tthrow new IllegalArgumentException(\"Unknown value \" + stringValue);",
+					"}");
 			writer.writeMethodBodyEnd();
 		}
 	}
 
 	private static class ClassEnumGenerator extends AbstractEnumGenerator {
-		private final List<String> generatedValues = new ArrayList<>();
-
-		public ClassEnumGenerator(ClassName className) {
+		private final boolean interned;
+
+		/**
+		 * Create the generator.
+		 *
+		 * @param className
+		 * @param interned whether to make instances canonical, see {@link PojoGenerator#FEATURE_INTERN_CLASS_ENUMS}
+		 */
+		public ClassEnumGenerator(ClassName className, boolean interned) {
 			// XXX: Visibility of the constructor should somehow get linked to the additionalProperties or such?
-			super(className, Visibility.PUBLIC);
+			super(className, interned ? Visibility.PRIVATE : Visibility.PUBLIC);
+			this.interned = interned;
 		}
 
 		@Override
@@ -109,14 +164,34 @@ public class PojoStringGenerator extends AbstractPojoTypeGenerator {
 			super.generateImports(writer);
 			writer.writeImport(ClassName.create(Objects.class));
 			writer.writeImport(ClassName.create(Arrays.class));
+			writer.writeImport(ClassName.create(Collections.class));
 			writer.writeImport(ClassName.create(List.class));
+			if (interned) {
+				writer.writeImport(ClassName.create(ConcurrentHashMap.class));
+				writer.writeImport(ClassName.create(ConcurrentMap.class));
+			}
+		}
+
+		@Override
+		protected void generateFields(JavaWriter writer) throws IOException {
+			super.generateFields(writer);
+			if (interned) {
+				writer.writeField(Visibility.PRIVATE, EnumSet.of(Modifier.FINAL), ClassName.create(Integer.TYPE), "hash", Block.empty());
+			}
+		}
+
+		@Override
+		protected void generateConstructorCode(JavaWriter writer) throws IOException {
+			super.generateConstructorCode(writer);
+			if (interned) {
+				writer.writeCode("this.hash = value.hashCode();");
+			}
 		}
 
 		@Override
 		public void generateEnumValue(String value, JavaWriter writer) throws IOException {
-			String generatedValue = value.toUpperCase(Locale.ENGLISH);
-			generatedValues.add(generatedValue);
-			writer.writeCode("public static final " + getClassName().getRawClassName() + " " + generatedValue + " = new " + getClassName().getRawClassName() + "(\"" + value + "\");");
+			String generatedValue = addEnumValue(value);
+			writer.writeCode("public static final " + getClassName().getRawClassName() + " " + generatedValue + " = new " + getClassName().getRawClassName() + "(" + JavaWriter.toStringLiteral(value) + ");");
 		}
 
 		@Override
@@ -126,34 +201,112 @@ public class PojoStringGenerator extends AbstractPojoTypeGenerator {
 			// Create #hashCode() and #equals()
 			writer.writeAnnotation(ClassName.create(Override.class));
 			writer.writeMethodBodyStart(Visibility.PUBLIC, ClassName.create(Integer.TYPE), "hashCode");
-			writer.writeCode("return Objects.hash(value);");
+			writer.writeCode(interned ? "return hash;" : "return Objects.hashCode(value);");
 			writer.writeMethodBodyEnd();
 
 			writer.writeAnnotation(ClassName.create(Override.class));
 			writer.writeMethodBodyStart(Visibility.PUBLIC, ClassName.create(Boolean.TYPE), "equals", ClassName.create(Object.class), "obj");
-			writer.writeCode(
-					"if (!(obj instanceof " + getClassName().getRawClassName() + ")) {",
-					"\treturn false;",
-					"}",
-					"return Objects.equals(value, ((" + getClassName().getRawClassName() + ") obj).value);");
+			if (interned) {
+				// Instances are canonical, so the identity check decides for all instances created through #valueOf().
+				writer.writeCode(
+						"if (this == obj) {",
+						"\treturn true;",
+						"}",
+						"if (!(obj instanceof " + getClassName().getRawClassName() + ")) {",
+						"\treturn false;",
+						"}",
+						getClassName().getRawClassName() + " other = (" + getClassName().getRawClassName() + ") obj;",
+						"return hash == other.hash && value.equals(other.value);");
+			} else {
+				writer.writeCode(
+						"if (!(obj instanceof " + getClassName().getRawClassName() + ")) {",
+						"\treturn false;",
+						"}",
+						"return Objects.equals(value, ((" + getClassName().getRawClassName() + ") obj).value);");
+			}
 			writer.writeMethodBodyEnd();
 
 			// FIXME: Should use an array here, to match Enum#values()
+			// The list is built once: the constants are initialized before, as they are declared before it.
 			ClassName listOfClassName = ClassName.create(List.class, getClassName());
-			writer.writeMethodBodyStart(Visibility.PUBLIC, EnumSet.of(Modifier.STATIC), listOfClassName, "values");
-			writer.writeCode("return Arrays.asList(");
-			writer.pushIndentLevel();
-			for (Iterator<String> it = generatedValues.iterator(); it.hasNext(); ) {
-				String generatedValue = it.next();
-				writer.writeIndent();
-				writer.write(generatedValue);
-				if (it.hasNext()) {
-					writer.write(",");
+			writer.writeEmptyLine();
+			writer.writeField(Visibility.PRIVATE, EnumSet.of(Modifier.STATIC, Modifier.FINAL), listOfClassName, "VALUES", () -> {
+				writer.write(" = Collections.unmodifiableList(Arrays.asList(\n");
+				writer.pushIndentLevel();
+				for (Iterator<String> it = getConstantNames().values().iterator(); it.hasNext(); ) {
+					String generatedValue = it.next();
+					writer.writeIndent();
+					writer.write(generatedValue);
+					if (it.hasNext()) {
+						writer.write(",");
+					}
+					writer.write("\n");
 				}
-				writer.write("\n");
+				writer.popIndentLevel();
+				writer.writeIndent();
+				writer.write("))");
+			});
+
+			if (interned) {
+				generateInstances(writer);
+			}
+
+			writer.writeJavadoc("Get all values, in declaration order.", "", "@return the values, as a list shared by all callers that cannot be modified");
+			writer.writeMethodBodyStart(Visibility.PUBLIC, EnumSet.of(Modifier.STATIC), listOfClassName, "values");
+			writer.writeCode("return VALUES;");
+			writer.writeMethodBodyEnd();
+
+			if (interned) {
+				generateValueOf(writer);
 			}
-			writer.popIndentLevel();
-			writer.writeCode(");");
+		}
+
+		/**
+		 * Create the canonicalizing map of all instances, which initially contains the constants.
+		 *
+		 * @param writer
+		 * @throws IOException
+		 */
+		protected void generateInstances(JavaWriter writer) throws IOException {
+			ClassName stringClassName = ClassName.create(String.class);
+			ClassName instancesClassName = ClassName.create(ConcurrentMap.class, stringClassName, getClassName());
+			ClassName instancesImplementationClassName = ClassName.create(ConcurrentHashMap.class, stringClassName, getClassName());
+			writer.writeField(Visibility.PRIVATE, EnumSet.of(Modifier.STATIC, Modifier.FINAL), instancesClassName, "INSTANCES", () -> {
+				writer.write(" = new ");
+				writer.writeClassName(instancesImplementationClassName);
+				writer.write("()");
+			});
+			writer.writeCode(
+					"static {",
+					"\tfor (" + getClassName().getRawClassName() + " value : VALUES) {",
+					"\t\tINSTANCES.put(value.value, value);",
+					"\t}",
+					"}");
+		}
+
+		/**
+		 * Create a #valueOf() method that returns the canonical instance for a value, creating and remembering it if the
+		 * value is unknown.
+		 *
+		 * @param writer
+		 * @throws IOException
+		 */
+		protected void generateValueOf(JavaWriter writer) throws IOException {
+			String rawClassName = getClassName().getRawClassName();
+			writer.writeMethodBodyStart(Visibility.PUBLIC, EnumSet.of(Modifier.STATIC), getClassName(), "valueOf", ClassName.create(String.class), "value");
+			writer.writeCode(
+					"if (value == null) {",
+					"\tthrow new IllegalArgumentException(\"Unknown value \" + value);",
+					"}",
+					rawClassName + " result = INSTANCES.get(value);",
+					"if (result == null) {",
+					"\t" + rawClassName + " created = new " + rawClassName + "(value);",
+					"\tresult = INSTANCES.putIfAbsent(value, created);",
+					"\tif (result == null) {",
+					"\t\tresult = created;",
+					"\t}",
+					"}",
+					"return result;");
 			writer.writeMethodBodyEnd();
 		}
 	}
@@ -171,7 +324,7 @@ public class PojoStringGenerator extends AbstractPojoTypeGenerator {
 				writer.write(",\n");
 			}
 			writer.writeIndent();
-			writer.write(value.toUpperCase(Locale.ENGLISH) + "(\"" + value + "\")");
+			writer.write(addEnumValue(value) + "(" + JavaWriter.toStringLiteral(value) + ")");
 			wroteOneValue = true;
 		}
 
@@ -211,7 +364,7 @@ public class PojoStringGenerator extends AbstractPojoTypeGenerator {
 		}
 		switch (enumStyle) {
 		case CLASS:
-			enumGenerator = new ClassEnumGenerator(wantedGeneratedClassName);
+			enumGenerator = new ClassEnumGenerator(wantedGeneratedClassName, context.getGenerator().getFeature(PojoGenerator.FEATURE_INTERN_CLASS_ENUMS));
 			break;
 		case ENUM:
 			enumGenerator = new EnumEnumGenerator(wantedGeneratedClassName);
@@ -63,4 +63,39 @@ class SimplePojoPropertyGenerator extends AbstractPojoPropertyGenerator {
 		writer.writeCode("this." + getPropertyName() + " = value;");
 		writer.writeMethodBodyEnd();
 	}
+
+	@Override
+	public void generateDeserializerFields(JavaWriter writer) throws IOException {
+		JacksonStreamingCode.writeDeserializerField(writer, JacksonStreamingCode.getDeserializerFieldName(getPropertyName()));
+	}
+
+	@Override
+	public void generateDeserializerCase(JavaWriter writer, String resultName) throws IOException {
+		String deserializerFieldName = JacksonStreamingCode.getDeserializerFieldName(getPropertyName());
+		writer.writeCode("case " + JavaWriter.toStringLiteral(getPropertyName()) + ":");
+		writer.pushIndentLevel();
+		JacksonStreamingCode.writeDeserializerLookup(writer, className, deserializerFieldName);
+		writer.writeIndent();
+		writer.write(resultName + "." + getPrefixedPropertyName("set", getPropertyName()) + "(");
+		JacksonStreamingCode.writeReadValue(writer, className, deserializerFieldName);
+		writer.write(");\n");
+		writer.writeCode("break;");
+		writer.popIndentLevel();
+	}
+
+	@Override
+	public void generateSerializerFields(JavaWriter writer, String nameConstantName) throws IOException {
+		JacksonStreamingCode.writeNameConstant(writer, nameConstantName, getPropertyName());
+		JacksonStreamingCode.writeSerializerField(writer, className, JacksonStreamingCode.getSerializerFieldName(getPropertyName()));
+	}
+
+	@Override
+	public void generateSerializerCode(JavaWriter writer, String valueName, String nameConstantName) throws IOException {
+		String propertyValueName = getPrefixedPropertyName("property", getPropertyName());
+		writer.writeCode("g.writeFieldName(" + nameConstantName + ");");
+		writer.writeIndent();
+		writer.writeClassName(className);
+		writer.write(" " + propertyValueName + " = " + valueName + "." + getPrefixedPropertyName("get", getPropertyName()) + "();\n");
+		JacksonStreamingCode.writeWriteValue(writer, className, propertyValueName, JacksonStreamingCode.getSerializerFieldName(getPropertyName()));
+	}
 }
@@ -0,0 +1,123 @@
+/**
+ * Copyright (C) 2015 Collaborne B.V. (opensource@collaborne.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.collaborne.jsonschema.generator.pojo;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import com.collaborne.jsonschema.generator.CodeGenerationException;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Bounded queue of writes that run on a separate executor, so that generating the next types can overlap with
+ * writing the previous ones.
+ *
+ * Submitting blocks while the maximum number of writes is pending, which bounds the memory held by the queued
+ * content. Failed writes are collected, and reported by {@link #awaitCompletion()}.
+ */
+class WriteQueue {
+	interface Write {
+		void run() throws IOException;
+	}
+
+	private final ExecutorService executor;
+	private final int maxPendingWrites;
+	private final Semaphore pendingWrites;
+	private final Queue<CodeGenerationException> failures = new ConcurrentLinkedQueue<>();
+
+	public WriteQueue(int threads, int maxPendingWrites) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("Threads must be at least 1, but is " + threads);
+		}
+		if (maxPendingWrites < 1) {
+			throw new IllegalArgumentException("Maximum pending writes must be at least 1, but is " + maxPendingWrites);
+		}
+		this.executor = Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder()
+			.setNameFormat("json-schema-bean-generator-write-%d")
+			.setDaemon(true)
+			.build());
+		this.maxPendingWrites = maxPendingWrites;
+		this.pendingWrites = new Semaphore(maxPendingWrites);
+	}
+
+	/**
+	 * Submit a write for {@code type}, waiting while the maximum number of writes is pending.
+	 *
+	 * @param type
+	 * @param write
+	 * @throws InterruptedIOException if the thread was interrupted while waiting, the write is then not submitted
+	 */
+	public void submit(URI type, Write write) throws InterruptedIOException {
+		try {
+			pendingWrites.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting to write " + type);
+		}
+
+		try {
+			executor.execute(() -> {
+				try {
+					write.run();
+				} catch (IOException | RuntimeException e) {
+					failures.add(new CodeGenerationException(type, "Cannot write " + type, e));
+				} finally {
+					pendingWrites.release();
+				}
+			});
+		} catch (RuntimeException e) {
+			pendingWrites.release();
+			throw e;
+		}
+	}
+
+	/**
+	 * Wait until all submitted writes have completed.
+	 *
+	 * @throws CodeGenerationException for the first failed write, further failures are added as suppressed exceptions
+	 * @throws InterruptedIOException if the thread was interrupted while waiting
+	 */
+	public void awaitCompletion() throws CodeGenerationException, InterruptedIOException {
+		try {
+			pendingWrites.acquire(maxPendingWrites);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for pending writes");
+		}
+		pendingWrites.release(maxPendingWrites);
+
+		CodeGenerationException failure = failures.poll();
+		if (failure != null) {
+			for (CodeGenerationException otherFailure = failures.poll(); otherFailure != null; otherFailure = failures.poll()) {
+				failure.addSuppressed(otherFailure);
+			}
+			throw failure;
+		}
+	}
+
+	/**
+	 * Stop the threads of the queue, writes that are still pending get completed.
+	 */
+	public void shutdown() {
+		executor.shutdown();
+	}
+}
@@ -0,0 +1,85 @@
+/**
+ * Copyright (C) 2015 Collaborne B.V. (opensource@collaborne.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.collaborne.jsonschema.generator.runtime;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Classes compiled for a schema at runtime.
+ *
+ * The classes live in their own class loader, which can be unloaded once this object and all classes and instances
+ * from it are no longer referenced.
+ */
+public class CompiledSchema {
+	private final String hash;
+	private final ClassLoader classLoader;
+	private final String rootClassName;
+	private final Set<String> classNames;
+
+	CompiledSchema(String hash, ClassLoader classLoader, String rootClassName, Set<String> classNames) {
+		this.hash = hash;
+		this.classLoader = classLoader;
+		this.rootClassName = rootClassName;
+		this.classNames = Collections.unmodifiableSet(classNames);
+	}
+
+	/**
+	 * Get the SHA-256 of the inputs, which is the key of this schema in the cache.
+	 *
+	 * @return
+	 */
+	public String getHash() {
+		return hash;
+	}
+
+	public ClassLoader getClassLoader() {
+		return classLoader;
+	}
+
+	/**
+	 * Get the class generated for the schema itself.
+	 *
+	 * @return
+	 * @throws ClassNotFoundException if the schema did not need a class of its own
+	 */
+	public Class<?> getRootClass() throws ClassNotFoundException {
+		return getClass(rootClassName);
+	}
+
+	/**
+	 * Get a class generated for the schema, or for one of the types defined inside it.
+	 *
+	 * @param className the binary name of the class
+	 * @return
+	 * @throws ClassNotFoundException
+	 */
+	public Class<?> getClass(String className) throws ClassNotFoundException {
+		if (!classNames.contains(className)) {
+			throw new ClassNotFoundException(className);
+		}
+		return Class.forName(className, false, classLoader);
+	}
+
+	/**
+	 * Get the binary names of all generated classes.
+	 *
+	 * @return
+	 */
+	public Set<String> getClassNames() {
+		return classNames;
+	}
+}
@@ -0,0 +1,46 @@
+/**
+ * Copyright (C) 2015 Collaborne B.V. (opensource@collaborne.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.collaborne.jsonschema.generator.runtime;
+
+import java.util.Map;
+
+/**
+ * Class loader defining classes from class files held in memory.
+ *
+ * Classes of the parent take precedence, as usual.
+ */
+class InMemoryClassLoader extends ClassLoader {
+	static {
+		registerAsParallelCapable();
+	}
+
+	/** Class files by binary class name */
+	private final Map<String, byte[]> classFiles;
+
+	public InMemoryClassLoader(ClassLoader parent, Map<String, byte[]> classFiles) {
+		super(parent);
+		this.classFiles = classFiles;
+	}
+
+	@Override
+	protected Class<?> findClass(String name) throws ClassNotFoundException {
+		byte[] classFile = classFiles.get(name);
+		if (classFile == null) {
+			throw new ClassNotFoundException(name);
+		}
+		return defineClass(name, classFile, 0, classFile.length);
+	}
+}
@@ -0,0 +1,197 @@
+/**
+ * Copyright (C) 2015 Collaborne B.V. (opensource@collaborne.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.collaborne.jsonschema.generator.runtime;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.collaborne.jsonschema.generator.CodeGenerationException;
+import com.collaborne.jsonschema.generator.Generator;
+import com.collaborne.jsonschema.generator.compile.InMemorySourceCompiler;
+import com.collaborne.jsonschema.generator.java.ClassName;
+import com.collaborne.jsonschema.generator.model.Mapping;
+import com.collaborne.jsonschema.generator.output.InMemoryOutputSink;
+import com.collaborne.jsonschema.generator.output.OutputSink;
+import com.collaborne.jsonschema.generator.pojo.PojoGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.fge.jsonschema.core.load.SchemaLoader;
+import com.github.fge.jsonschema.core.load.configuration.LoadingConfiguration;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+
+/**
+ * Generates and compiles classes for schemas at runtime.
+ *
+ * Each schema gets compiled into its own class loader. The results are cached by the SHA-256 of the schema and the
+ * requested class name, so that repeated schemas are served without compiling again. The least recently used results
+ * are evicted when the cache is full, which allows their class loaders to be unloaded.
+ *
+ * Schemas must be self-contained: references to other schemas are not resolved. Compiling requires a JDK, and the
+ * classes referenced by the generated code (for example the Jackson annotations) on the {@link #setClassPath(List)}
+ * or the class path of the JVM.
+ *
+ * Instances are thread-safe, concurrent requests for the same schema compile it only once.
+ */
+public class RuntimeClassCompiler {
+	/** Base URI for the schemas */
+	private static final String SCHEMA_BASE_URI = "http://json-schema-bean-generator.collaborne.com/runtime/";
+
+	/** Sink dropping the generated sources, they are kept by the compiler */
+	private static final OutputSink DISCARDING_SOURCE_SINK = new OutputSink() {
+		@Override
+		public void write(String fileName, ByteBuffer content) {
+			// Nothing to do
+		}
+	};
+
+	private final Logger logger = LoggerFactory.getLogger(RuntimeClassCompiler.class);
+	private final Injector injector = Guice.createInjector();
+	private final Cache<String, CompiledSchema> compiledSchemas;
+	private volatile ClassLoader parentClassLoader = RuntimeClassCompiler.class.getClassLoader();
+	private volatile List<Path> classPath = Collections.emptyList();
+
+	/**
+	 * Create a compiler that caches up to {@code maximumSize} compiled schemas.
+	 *
+	 * @param maximumSize
+	 */
+	public RuntimeClassCompiler(int maximumSize) {
+		if (maximumSize < 1) {
+			throw new IllegalArgumentException("Maximum size must be at least 1, but is " + maximumSize);
+		}
+		this.compiledSchemas = CacheBuilder.newBuilder()
+			.maximumSize(maximumSize)
+			.build();
+	}
+
+	/**
+	 * Set the parent for the class loaders of the compiled schemas.
+	 *
+	 * @param parentClassLoader
+	 */
+	public void setParentClassLoader(ClassLoader parentClassLoader) {
+		this.parentClassLoader = parentClassLoader;
+	}
+
+	/**
+	 * Set the class path for compiling, in addition to the class path of the running JVM.
+	 *
+	 * @param classPath
+	 */
+	public void setClassPath(List<Path> classPath) {
+		this.classPath = new ArrayList<>(classPath);
+	}
+
+	/**
+	 * Get the classes for {@code schema}, compiling them if they are not cached.
+	 *
+	 * Types defined inside the schema without an explicit mapping get a class in the package of {@code className}.
+	 *
+	 * @param schema
+	 * @param className name of the class for the schema itself
+	 * @return
+	 * @throws CodeGenerationException if generating or compiling failed
+	 * @throws IOException
+	 */
+	public CompiledSchema compile(JsonNode schema, ClassName className) throws CodeGenerationException, IOException {
+		String hash = Hashing.sha256().newHasher()
+			.putString(className.toString(), StandardCharsets.UTF_8)
+			.putChar('\n')
+			.putString(schema.toString(), StandardCharsets.UTF_8)
+			.hash()
+			.toString();
+		try {
+			return compiledSchemas.get(hash, () -> compileUncached(hash, schema, className));
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof CodeGenerationException) {
+				throw (CodeGenerationException) e.getCause();
+			} else if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new IllegalStateException("Cannot compile schema", e.getCause());
+		} catch (UncheckedExecutionException e) {
+			throw new IllegalStateException("Cannot compile schema", e.getCause());
+		}
+	}
+
+	/**
+	 * Get the number of cached compiled schemas.
+	 *
+	 * @return
+	 */
+	public long size() {
+		return compiledSchemas.size();
+	}
+
+	/**
+	 * Drop all cached compiled schemas.
+	 */
+	public void invalidateAll() {
+		compiledSchemas.invalidateAll();
+	}
+
+	private CompiledSchema compileUncached(String hash, JsonNode schema, ClassName className) throws CodeGenerationException, IOException {
+		long startTime = System.nanoTime();
+		URI schemaUri = URI.create(SCHEMA_BASE_URI + hash + ".json");
+		URI type = schemaUri.resolve("#");
+
+		LoadingConfiguration loadingConfiguration = LoadingConfiguration.newBuilder()
+			.preloadSchema(schemaUri.toString(), schema)
+			.freeze();
+
+		InMemoryOutputSink classOutput = new InMemoryOutputSink();
+		InMemorySourceCompiler sourceCompiler = new InMemorySourceCompiler(classOutput);
+		sourceCompiler.setClassPath(classPath);
+
+		Generator generator = injector.getInstance(PojoGenerator.class);
+		generator.setFeature(Generator.FEATURE_DEFAULT_PACKAGE_NAME, className.getPackageName());
+		generator.setOutputSink(DISCARDING_SOURCE_SINK);
+		generator.setSourceCompiler(sourceCompiler);
+		generator.setSchemaLoader(new SchemaLoader(loadingConfiguration));
+		generator.addMapping(type, new Mapping(type, className));
+		generator.generate(type);
+		generator.finish();
+
+		List<String> classFileNames = sourceCompiler.compile();
+		Map<String, byte[]> classFiles = new HashMap<>();
+		for (String classFileName : classFileNames) {
+			String binaryName = classFileName.substring(0, classFileName.length() - ".class".length()).replace('/', '.');
+			classFiles.put(binaryName, classOutput.getContent(classFileName));
+		}
+
+		ClassLoader classLoader = new InMemoryClassLoader(parentClassLoader, classFiles);
+		String rootClassName = className.getPackageName().isEmpty() ? className.getRawClassName() : className.getPackageName() + "." + className.getRawClassName();
+		logger.info("{}: Compiled {} classes in {}ms", rootClassName, classFiles.size(), (System.nanoTime() - startTime) / 1000000);
+		return new CompiledSchema(hash, classLoader, rootClassName, new TreeSet<>(classFiles.keySet()));
+	}
+}
@@ -16,6 +16,7 @@
 package com.collaborne.jsonschema.generator;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 
 import java.net.URI;
 import java.util.UUID;
@@ -32,6 +33,18 @@ public class AbstractGeneratorTest {
 		}
 	}
 
+	@Test
+	public void describeConfigurationIgnoresFeaturesNotAffectingSources() {
+		AbstractGenerator generator = new DummyGenerator();
+		String description = generator.describeConfiguration();
+
+		generator.setFeature(Generator.FEATURE_SOURCE_JAR_COMPRESSION_LEVEL, Integer.valueOf(9));
+		assertEquals(description, generator.describeConfiguration());
+
+		generator.setFeature(Generator.FEATURE_DEFAULT_PACKAGE_NAME, "other");
+		assertNotEquals(description, generator.describeConfiguration());
+	}
+
 	@Test(expected=IllegalArgumentException.class)
 	public void getDefaultPackageNameThrowsIllegalArgumentExceptionForTypeWithInvalidJsonPointerFragment() {
 		AbstractGenerator generator = new DummyGenerator();
@@ -68,4 +81,29 @@ public class AbstractGeneratorTest {
 		generator.addDefaultPackageName(packageUri, defaultPackageName);
 		assertEquals(defaultPackageName, generator.getDefaultPackageName(typeUri));
 	}
+
+	@Test
+	public void getDefaultPackageNameReturnsMappedToParentPath() {
+		URI typeUri = URI.create("http://example.com/a/b/c.json#/definitions/foo");
+		String defaultPackageName = UUID.randomUUID().toString();
+
+		AbstractGenerator generator = new DummyGenerator();
+		generator.addDefaultPackageName(URI.create("http://example.com/a"), defaultPackageName);
+		generator.addDefaultPackageName(URI.create("http://example.com/other"), UUID.randomUUID().toString());
+		assertEquals(defaultPackageName, generator.getDefaultPackageName(typeUri));
+	}
+
+	@Test
+	public void getDefaultPackageNameReturnsLongestMapping() {
+		URI packageUri = URI.create("http://example.com/path");
+		String defaultPackageName = UUID.randomUUID().toString();
+		String nestedPackageName = UUID.randomUUID().toString();
+
+		AbstractGenerator generator = new DummyGenerator();
+		generator.addDefaultPackageName(packageUri, defaultPackageName);
+		generator.addDefaultPackageName(packageUri.resolve("#/definitions"), nestedPackageName);
+		assertEquals(nestedPackageName, generator.getDefaultPackageName(packageUri.resolve("#/definitions/foo")));
+		assertEquals(defaultPackageName, generator.getDefaultPackageName(packageUri.resolve("#/properties/foo")));
+		assertEquals(defaultPackageName, generator.getDefaultPackageName(packageUri));
+	}
 }
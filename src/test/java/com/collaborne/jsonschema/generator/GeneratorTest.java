@@ -0,0 +1,89 @@
+/**
+ * Copyright (C) 2015 Collaborne B.V. (opensource@collaborne.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.collaborne.jsonschema.generator;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+
+import org.junit.Test;
+
+import com.collaborne.jsonschema.generator.java.ClassName;
+import com.collaborne.jsonschema.generator.model.Mapping;
+import com.collaborne.jsonschema.generator.output.InMemoryOutputSink;
+import com.github.fge.jsonschema.core.load.SchemaLoader;
+
+public class GeneratorTest {
+	/** Generator implementing only the methods that {@link Generator} requires */
+	private static class MinimalGenerator implements Generator {
+		@Override
+		public void setOutputDirectory(Path outputDirectory) {
+			// Nothing to do
+		}
+
+		@Override
+		public void addMapping(URI type, Mapping mapping) {
+			// Nothing to do
+		}
+
+		@Override
+		public void setSchemaLoader(SchemaLoader schemaLoader) {
+			// Nothing to do
+		}
+
+		@Override
+		public void addDefaultPackageName(URI baseUri, String packageName) {
+			// Nothing to do
+		}
+
+		@Override
+		public ClassName generate(URI type) throws CodeGenerationException {
+			return null;
+		}
+
+		@Override
+		public <T> T getFeature(Feature<T> feature) {
+			return feature.getDefaultValue();
+		}
+
+		@Override
+		public <T> T setFeature(Feature<T> feature, T value) {
+			return feature.getDefaultValue();
+		}
+	}
+
+	@Test
+	public void finishDoesNothingByDefault() throws IOException, CodeGenerationException {
+		new MinimalGenerator().finish();
+	}
+
+	@Test
+	public void getMetricsReturnsEmptyMetricsByDefault() {
+		assertEquals(0, new MinimalGenerator().getMetrics().getGeneratedTypes());
+	}
+
+	@Test(expected=UnsupportedOperationException.class)
+	public void setOutputSinkIsUnsupportedByDefault() {
+		new MinimalGenerator().setOutputSink(new InMemoryOutputSink());
+	}
+
+	@Test(expected=UnsupportedOperationException.class)
+	public void setSourceCompilerIsUnsupportedByDefault() {
+		new MinimalGenerator().setSourceCompiler(null);
+	}
+}
@@ -0,0 +1,64 @@
+/**
+ * Copyright (C) 2015 Collaborne B.V. (opensource@collaborne.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.collaborne.jsonschema.generator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.net.URI;
+
+import org.junit.Test;
+
+public class PackageNameTrieTest {
+	@Test
+	public void getEmptyReturnsNull() {
+		PackageNameTrie trie = new PackageNameTrie();
+		assertNull(trie.get(URI.create("http://example.com/path#/pointer")));
+	}
+
+	@Test
+	public void getRootReturnsMappingForAllDocuments() {
+		PackageNameTrie trie = new PackageNameTrie();
+		trie.put(URI.create("http://example.com/#"), "com.example");
+		assertEquals("com.example", trie.get(URI.create("http://example.com/a/b.json#/definitions/foo")));
+		assertNull(trie.get(URI.create("http://example.org/a/b.json#/definitions/foo")));
+	}
+
+	@Test
+	public void getDoesNotMatchPartialTokens() {
+		PackageNameTrie trie = new PackageNameTrie();
+		trie.put(URI.create("http://example.com/a.json#/definitions/foo"), "com.example.foo");
+		assertNull(trie.get(URI.create("http://example.com/a.json#/definitions/foobar")));
+		assertNull(trie.get(URI.create("http://example.com/a#/definitions/foo")));
+		assertEquals("com.example.foo", trie.get(URI.create("http://example.com/a.json#/definitions/foo/properties/bar")));
+	}
+
+	@Test
+	public void putAfterGetUpdatesMemoizedDocument() {
+		PackageNameTrie trie = new PackageNameTrie();
+		URI type = URI.create("http://example.com/a/b.json#/definitions/foo");
+		assertNull(trie.get(type));
+		trie.put(URI.create("http://example.com/a#"), "com.example.a");
+		assertEquals("com.example.a", trie.get(type));
+		trie.put(URI.create("http://example.com/a/b.json#"), "com.example.b");
+		assertEquals("com.example.b", trie.get(type));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void getInvalidJsonPointerFragmentThrowsIllegalArgumentException() {
+		new PackageNameTrie().get(URI.create("http://example.com/#not-json-pointer-fragment"));
+	}
+}
@@ -0,0 +1,67 @@
+/**
+ * Copyright (C) 2015 Collaborne B.V. (opensource@collaborne.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.collaborne.jsonschema.generator.compile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import com.collaborne.jsonschema.generator.CodeGenerationException;
+import com.collaborne.jsonschema.generator.output.InMemoryOutputSink;
+
+public class InMemorySourceCompilerTest {
+	private static ByteBuffer source(String content) {
+		return ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void compileWritesClassFiles() throws CodeGenerationException, IOException {
+		InMemoryOutputSink classOutput = new InMemoryOutputSink();
+		InMemorySourceCompiler compiler = new InMemorySourceCompiler(classOutput);
+		compiler.addSource("com/example/A.java", source("package com.example; public class A { B b; }"), URI.create("http://example.com/a.json#"));
+		compiler.addSource("com/example/B.java", source("package com.example; public class B { public static class Inner {} }"), URI.create("http://example.com/b.json#"));
+		compiler.compile();
+
+		assertEquals(3, classOutput.getFiles().size());
+		assertTrue(classOutput.getFiles().containsKey("com/example/A.class"));
+		assertTrue(classOutput.getFiles().containsKey("com/example/B.class"));
+		assertTrue(classOutput.getFiles().containsKey("com/example/B$Inner.class"));
+	}
+
+	@Test
+	public void compileErrorThrowsCodeGenerationExceptionForType() throws IOException {
+		URI type = URI.create("http://example.com/broken.json#");
+		InMemoryOutputSink classOutput = new InMemoryOutputSink();
+		InMemorySourceCompiler compiler = new InMemorySourceCompiler(classOutput);
+		compiler.addSource("com/example/Valid.java", source("package com.example; public class Valid {}"), URI.create("http://example.com/valid.json#"));
+		compiler.addSource("com/example/Broken.java", source("package com.example; public class Broken { Missing missing; }"), type);
+		try {
+			compiler.compile();
+			fail("Expected a CodeGenerationException");
+		} catch (CodeGenerationException e) {
+			assertEquals(type, e.getType());
+			assertTrue(e.getMessage(), e.getMessage().startsWith("/com/example/Broken.java:1:"));
+		}
+		assertTrue(classOutput.getFiles().isEmpty());
+	}
+}
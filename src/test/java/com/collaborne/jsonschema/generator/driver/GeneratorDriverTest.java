@@ -15,10 +15,19 @@
  */
 package com.collaborne.jsonschema.generator.driver;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 
+import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.junit.Test;
@@ -29,6 +38,9 @@ import com.collaborne.jsonschema.generator.Generator;
 import com.collaborne.jsonschema.generator.java.ClassName;
 import com.collaborne.jsonschema.generator.model.Mapping;
 import com.collaborne.jsonschema.generator.model.Mappings;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
 
 public class GeneratorDriverTest {
 	@Test
@@ -67,4 +79,44 @@ public class GeneratorDriverTest {
 		GeneratorDriver driver = new GeneratorDriver(generator);
 		driver.addMappings(mappings);
 	}
+
+	@Test
+	public void loadSchemaFilesParallelKeepsOrder() throws IOException {
+		FileSystem fs = Jimfs.newFileSystem(Configuration.unix());
+		List<Path> schemaFiles = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			Path schemaFile = fs.getPath("/schemas/schema" + i + ".json");
+			Files.createDirectories(schemaFile.getParent());
+			Files.write(schemaFile, ("{\"title\":\"" + i + "\"}").getBytes(StandardCharsets.UTF_8));
+			schemaFiles.add(schemaFile);
+		}
+
+		GeneratorDriver driver = new GeneratorDriver(new AbstractGenerator() {
+			@Override
+			public ClassName generate(URI type) throws CodeGenerationException {
+				throw new UnsupportedOperationException("Type1427895891163#generate() is not implemented");
+			}
+		});
+		driver.setParallelism(4);
+		Map<Path, JsonNode> schemas = driver.loadSchemaFiles(schemaFiles);
+		assertEquals(schemaFiles, new ArrayList<>(schemas.keySet()));
+		for (int i = 0; i < schemaFiles.size(); i++) {
+			assertEquals(String.valueOf(i), schemas.get(schemaFiles.get(i)).get("title").textValue());
+		}
+	}
+
+	@Test(expected=IOException.class)
+	public void loadSchemaFilesTrailingContentThrowsIOException() throws IOException {
+		FileSystem fs = Jimfs.newFileSystem(Configuration.unix());
+		Path schemaFile = fs.getPath("/schema.json");
+		Files.write(schemaFile, "{} {}".getBytes(StandardCharsets.UTF_8));
+
+		GeneratorDriver driver = new GeneratorDriver(new AbstractGenerator() {
+			@Override
+			public ClassName generate(URI type) throws CodeGenerationException {
+				throw new UnsupportedOperationException("Type1427895891163#generate() is not implemented");
+			}
+		});
+		driver.loadSchemaFiles(Arrays.asList(schemaFile));
+	}
 }
@@ -0,0 +1,101 @@
+/**
+ * Copyright (C) 2015 Collaborne B.V. (opensource@collaborne.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.collaborne.jsonschema.generator.java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ClassPathIndexTest {
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void systemIndexContainsPlatformAndApplicationClasses() {
+		ClassPathIndex index = ClassPathIndex.getSystemClassPathIndex();
+		assertTrue(index.contains("java.lang.String"));
+		assertTrue(index.contains("java.util.Map$Entry"));
+		assertTrue(index.contains(ClassPathIndexTest.class.getName()));
+		assertFalse(index.contains("java.util.Map.Entry"));
+		assertFalse(index.contains("com.example.DoesNotExist"));
+	}
+
+	@Test
+	public void indexDirectory() throws IOException {
+		Path directory = temporaryFolder.newFolder().toPath();
+		Files.createDirectories(directory.resolve("com/example"));
+		Files.createFile(directory.resolve("com/example/Foo.class"));
+		Files.createFile(directory.resolve("com/example/Foo$Bar.class"));
+		Files.createFile(directory.resolve("com/example/Foo.java"));
+
+		ClassPathIndex index = new ClassPathIndex(null, Collections.singletonList(directory));
+		assertEquals(2, index.size());
+		assertTrue(index.contains("com.example.Foo"));
+		assertTrue(index.contains("com.example.Foo$Bar"));
+	}
+
+	@Test
+	public void indexJarFollowsManifestClassPath() throws IOException {
+		Path directory = temporaryFolder.newFolder().toPath();
+		Path referencedJar = directory.resolve("referenced.jar");
+		writeJar(referencedJar, null, "com/example/Referenced.class");
+		Manifest manifest = new Manifest();
+		manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+		manifest.getMainAttributes().put(Attributes.Name.CLASS_PATH, "referenced.jar missing.jar");
+		Path jar = directory.resolve("main.jar");
+		writeJar(jar, manifest, "com/example/Main.class", "META-INF/versions/9/com/example/Versioned.class");
+
+		ClassPathIndex index = new ClassPathIndex(null, Collections.singletonList(jar));
+		assertTrue(index.contains("com.example.Main"));
+		assertTrue(index.contains("com.example.Versioned"));
+		assertTrue(index.contains("com.example.Referenced"));
+	}
+
+	@Test
+	public void containsUsesParent() throws IOException {
+		Path directory = temporaryFolder.newFolder().toPath();
+		Files.createDirectories(directory.resolve("com/example"));
+		Files.createFile(directory.resolve("com/example/Foo.class"));
+
+		ClassPathIndex index = new ClassPathIndex(ClassPathIndex.getSystemClassPathIndex(), Collections.singletonList(directory));
+		assertTrue(index.contains("com.example.Foo"));
+		assertTrue(index.contains("java.lang.String"));
+	}
+
+	private static void writeJar(Path jar, Manifest manifest, String... entries) throws IOException {
+		try (OutputStream out = Files.newOutputStream(jar);
+			JarOutputStream jarOut = manifest != null ? new JarOutputStream(out, manifest) : new JarOutputStream(out)) {
+			for (String entry : entries) {
+				jarOut.putNextEntry(new JarEntry(entry));
+				jarOut.closeEntry();
+			}
+		}
+	}
+}
@@ -31,4 +31,11 @@ public class JavaWriterTest {
 			assertEquals("java.util.Map<String,Integer>", writer.getAvailableShortName(className));
 		}
 	}
+
+	@Test
+	public void toStringLiteralEscapesSpecialCharacters() {
+		assertEquals("\"plain\"", JavaWriter.toStringLiteral("plain"));
+		assertEquals("\"a\\\"b\\\\c\\nd\"", JavaWriter.toStringLiteral("a\"b\\c\nd"));
+		assertEquals("\"\\u00e9\\u2028\"", JavaWriter.toStringLiteral("\u00e9\u2028"));
+	}
 }
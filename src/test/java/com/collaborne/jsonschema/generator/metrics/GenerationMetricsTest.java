@@ -0,0 +1,64 @@
+/**
+ * Copyright (C) 2015 Collaborne B.V. (opensource@collaborne.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.collaborne.jsonschema.generator.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.collaborne.jsonschema.generator.metrics.GenerationMetrics.Phase;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.fge.jackson.JacksonUtils;
+
+public class GenerationMetricsTest {
+	@Test
+	public void timerRecordsPhase() throws InterruptedException {
+		GenerationMetrics metrics = new GenerationMetrics();
+		try (GenerationMetrics.Timer timer = metrics.start(Phase.TYPE_GENERATION, URI.create("http://example.com/#"))) {
+			Thread.sleep(2);
+		}
+
+		assertEquals(1, metrics.getCount(Phase.TYPE_GENERATION));
+		assertTrue(metrics.getTotalTime(Phase.TYPE_GENERATION, TimeUnit.MILLISECONDS) >= 1);
+		assertEquals(0, metrics.getCount(Phase.WRITE_SOURCE));
+	}
+
+	@Test
+	public void writeReportContainsPhasesAndCounters() throws IOException {
+		GenerationMetrics metrics = new GenerationMetrics();
+		metrics.start(Phase.SCHEMA_LOADING, "schema.json").close();
+		metrics.recordGeneratedType(10);
+		metrics.recordNullType();
+		metrics.recordEmittedBytes(12);
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		metrics.writeReport(output);
+		JsonNode report = JacksonUtils.getReader().readTree(output.toString("UTF-8"));
+		assertEquals(1, report.path("phases").path("schemaLoading").path("count").asLong());
+		assertEquals(Phase.values().length, report.path("phases").size());
+		assertEquals(1, report.path("counters").path("generatedTypes").asLong());
+		assertEquals(10, report.path("counters").path("generatedCharacters").asLong());
+		assertEquals(0, report.path("counters").path("skippedTypes").asLong());
+		assertEquals(1, report.path("counters").path("nullTypes").asLong());
+		assertEquals(12, report.path("counters").path("emittedBytes").asLong());
+	}
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright (C) 2015 Collaborne B.V. (opensource@collaborne.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.collaborne.jsonschema.generator.output;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+
+public class BatchingFileSystemOutputSinkTest {
+	/** Sink recording the synced directories */
+	private static class RecordingSink extends BatchingFileSystemOutputSink {
+		private final List<Path> syncedDirectories = new ArrayList<>();
+
+		public RecordingSink(Path directory, int batchSize, boolean sync) {
+			super(directory, batchSize, sync);
+		}
+
+		@Override
+		protected void syncDirectory(Path directory) throws IOException {
+			syncedDirectories.add(directory);
+		}
+	}
+
+	private FileSystem fs;
+
+	@Before
+	public void setUp() {
+		fs = Jimfs.newFileSystem(Configuration.unix());
+	}
+
+	@Test
+	public void writeWritesFullBatches() throws IOException {
+		Path directory = fs.getPath("/output");
+		BatchingFileSystemOutputSink sink = new BatchingFileSystemOutputSink(directory, 3);
+		sink.write("a/A.java", content("class A {}"));
+		sink.write("b/B.java", content("class B {}"));
+		assertFalse(Files.exists(directory.resolve("a/A.java")));
+
+		sink.write("c/C.java", content("class C {}"));
+		assertArrayEquals(bytes("class A {}"), Files.readAllBytes(directory.resolve("a/A.java")));
+		assertArrayEquals(bytes("class C {}"), Files.readAllBytes(directory.resolve("c/C.java")));
+	}
+
+	@Test
+	public void flushWritesPendingFiles() throws IOException {
+		Path directory = fs.getPath("/output");
+		BatchingFileSystemOutputSink sink = new BatchingFileSystemOutputSink(directory, 3);
+		sink.write("d/D.java", content("class D {}"));
+		assertFalse(Files.exists(directory.resolve("d/D.java")));
+		sink.flush();
+		assertArrayEquals(bytes("class D {}"), Files.readAllBytes(directory.resolve("d/D.java")));
+	}
+
+	@Test
+	public void writeIfChangedWritesPendingFilesFirst() throws IOException {
+		Path directory = fs.getPath("/output");
+		BatchingFileSystemOutputSink sink = new BatchingFileSystemOutputSink(directory, 3);
+		sink.write("Foo.java", content("class Foo { int value; }"));
+		assertTrue(sink.writeIfChanged("Foo.java", content("class Foo {}")));
+		sink.flush();
+		assertArrayEquals(bytes("class Foo {}"), Files.readAllBytes(directory.resolve("Foo.java")));
+	}
+
+	@Test
+	public void syncSyncsEachDirectoryOncePerBatch() throws IOException {
+		Path directory = fs.getPath("/output");
+		RecordingSink sink = new RecordingSink(directory, 3, true);
+		sink.write("a/A1.java", content("class A1 {}"));
+		sink.write("b/B.java", content("class B {}"));
+		sink.write("a/A2.java", content("class A2 {}"));
+		assertEquals(Arrays.asList(directory.resolve("a"), directory.resolve("b")), sink.syncedDirectories);
+	}
+
+	@Test
+	public void withoutSyncNoDirectoriesAreSynced() throws IOException {
+		Path directory = fs.getPath("/output");
+		RecordingSink sink = new RecordingSink(directory, 1, false);
+		sink.write("a/A.java", content("class A {}"));
+		sink.flush();
+		assertEquals(Collections.emptyList(), sink.syncedDirectories);
+	}
+
+	private static byte[] bytes(String s) {
+		return s.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static ByteBuffer content(String s) {
+		return ByteBuffer.wrap(bytes(s));
+	}
+}
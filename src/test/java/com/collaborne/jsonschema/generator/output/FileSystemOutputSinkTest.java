@@ -0,0 +1,87 @@
+/**
+ * Copyright (C) 2015 Collaborne B.V. (opensource@collaborne.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.collaborne.jsonschema.generator.output;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+
+public class FileSystemOutputSinkTest {
+	private FileSystem fs;
+
+	@Before
+	public void setUp() {
+		fs = Jimfs.newFileSystem(Configuration.unix());
+	}
+
+	@Test
+	public void writeCreatesDirectories() throws IOException {
+		Path directory = fs.getPath("/output");
+		FileSystemOutputSink sink = new FileSystemOutputSink(directory);
+		sink.write("com/example/Foo.java", content("class Foo {}"));
+		sink.write("com/example/Bar.java", content("class Bar {}"));
+		assertArrayEquals(bytes("class Foo {}"), Files.readAllBytes(directory.resolve("com/example/Foo.java")));
+		assertArrayEquals(bytes("class Bar {}"), Files.readAllBytes(directory.resolve("com/example/Bar.java")));
+	}
+
+	@Test
+	public void writeReplacesLongerFile() throws IOException {
+		Path directory = fs.getPath("/output");
+		FileSystemOutputSink sink = new FileSystemOutputSink(directory);
+		sink.write("Foo.java", content("class Foo { int value; }"));
+		sink.write("Foo.java", content("class Foo {}"));
+		assertArrayEquals(bytes("class Foo {}"), Files.readAllBytes(directory.resolve("Foo.java")));
+	}
+
+	@Test
+	public void writeIfChangedSkipsSameContent() throws IOException {
+		Path directory = fs.getPath("/output");
+		FileSystemOutputSink sink = new FileSystemOutputSink(directory);
+		assertTrue(sink.writeIfChanged("Foo.java", content("class Foo {}")));
+		Path file = directory.resolve("Foo.java");
+		FileTime lastModified = FileTime.fromMillis(0);
+		Files.setLastModifiedTime(file, lastModified);
+
+		assertFalse(sink.writeIfChanged("Foo.java", content("class Foo {}")));
+		assertEquals(lastModified, Files.getLastModifiedTime(file));
+
+		assertTrue(sink.writeIfChanged("Foo.java", content("class Foo { }")));
+		assertArrayEquals(bytes("class Foo { }"), Files.readAllBytes(file));
+	}
+
+	private static byte[] bytes(String s) {
+		return s.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static ByteBuffer content(String s) {
+		return ByteBuffer.wrap(bytes(s));
+	}
+}
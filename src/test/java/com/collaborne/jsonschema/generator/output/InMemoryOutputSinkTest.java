@@ -0,0 +1,47 @@
+/**
+ * Copyright (C) 2015 Collaborne B.V. (opensource@collaborne.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.collaborne.jsonschema.generator.output;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class InMemoryOutputSinkTest {
+	@Test
+	public void writeKeepsContent() {
+		InMemoryOutputSink sink = new InMemoryOutputSink();
+		ByteBuffer content = ByteBuffer.wrap("class Foo {}".getBytes(StandardCharsets.UTF_8));
+		sink.write("com/example/Foo.java", content);
+		assertEquals(0, content.position());
+		assertArrayEquals("class Foo {}".getBytes(StandardCharsets.UTF_8), sink.getContent("com/example/Foo.java"));
+		assertNull(sink.getContent("com/example/Bar.java"));
+	}
+
+	@Test
+	public void writeIfChangedComparesContent() {
+		InMemoryOutputSink sink = new InMemoryOutputSink();
+		assertTrue(sink.writeIfChanged("Foo.java", ByteBuffer.wrap(new byte[] { 1, 2 })));
+		assertFalse(sink.writeIfChanged("Foo.java", ByteBuffer.wrap(new byte[] { 1, 2 })));
+		assertTrue(sink.writeIfChanged("Foo.java", ByteBuffer.wrap(new byte[] { 1, 3 })));
+	}
+}
@@ -0,0 +1,149 @@
+/**
+ * Copyright (C) 2015 Collaborne B.V. (opensource@collaborne.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.collaborne.jsonschema.generator.output;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+
+public class SourceJarOutputSinkTest {
+	private FileSystem fs;
+
+	@Before
+	public void setUp() {
+		fs = Jimfs.newFileSystem(Configuration.unix());
+	}
+
+	@Test
+	public void flushWritesSortedEntries() throws IOException {
+		Path file = fs.getPath("/output/sources.srcjar");
+		SourceJarOutputSink sink = new SourceJarOutputSink(file, Deflater.DEFAULT_COMPRESSION, true);
+		sink.write("com/example/b/Bar.java", content("class Bar {}"));
+		sink.write("com/example/a/Foo.java", content("class Foo {}"));
+		sink.write("com/example/Baz.java", content("class Baz {}"));
+		sink.flush();
+
+		assertEquals(Arrays.asList("com/example/Baz.java", "com/example/a/Foo.java", "com/example/b/Bar.java"), readNames(file));
+		assertEquals(1, readTimes(file).stream().distinct().count());
+	}
+
+	@Test
+	public void writeStreamsEntriesInArrivalOrder() throws IOException {
+		Path file = fs.getPath("/output/sources.srcjar");
+		SourceJarOutputSink sink = new SourceJarOutputSink(file);
+		sink.write("com/example/b/Bar.java", content("class Bar {}"));
+		sink.write("com/example/a/Foo.java", content("class Foo {}"));
+		// Nothing is visible before the jar is complete
+		assertFalse(Files.exists(file));
+		sink.flush();
+
+		assertEquals(Arrays.asList("com/example/b/Bar.java", "com/example/a/Foo.java"), readNames(file));
+		assertEquals(1, readTimes(file).stream().distinct().count());
+	}
+
+	@Test
+	public void closeAfterFlushKeepsJar() throws IOException {
+		Path file = fs.getPath("/output/sources.srcjar");
+		SourceJarOutputSink sink = new SourceJarOutputSink(file);
+		sink.write("A.java", content("class A {}"));
+		sink.flush();
+		byte[] jar = Files.readAllBytes(file);
+
+		sink.close();
+		assertArrayEquals(jar, Files.readAllBytes(file));
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(file.getParent())) {
+			assertEquals(Collections.singletonList(file), Lists.newArrayList(files));
+		}
+	}
+
+	@Test(expected=IllegalStateException.class)
+	public void writeAfterFlushThrowsIllegalStateException() throws IOException {
+		SourceJarOutputSink sink = new SourceJarOutputSink(fs.getPath("/sources.srcjar"));
+		sink.flush();
+		sink.write("A.java", content("class A {}"));
+	}
+
+	@Test
+	public void flushIsReproducible() throws IOException {
+		Path firstFile = fs.getPath("/first.srcjar");
+		SourceJarOutputSink first = new SourceJarOutputSink(firstFile, Deflater.BEST_COMPRESSION, true);
+		first.write("A.java", content("class A {}"));
+		first.write("B.java", content("class B {}"));
+		first.flush();
+
+		Path secondFile = fs.getPath("/second.srcjar");
+		SourceJarOutputSink second = new SourceJarOutputSink(secondFile, Deflater.BEST_COMPRESSION, true);
+		second.write("B.java", content("class B {}"));
+		second.write("A.java", content("class A {}"));
+		second.flush();
+
+		assertArrayEquals(Files.readAllBytes(firstFile), Files.readAllBytes(secondFile));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void createInvalidCompressionLevelThrowsIllegalArgumentException() throws IOException {
+		new SourceJarOutputSink(fs.getPath("/sources.srcjar"), 10);
+	}
+
+	private static List<String> readNames(Path file) throws IOException {
+		List<String> names = new ArrayList<>();
+		try (InputStream in = Files.newInputStream(file); ZipInputStream zipIn = new ZipInputStream(in)) {
+			ZipEntry entry;
+			while ((entry = zipIn.getNextEntry()) != null) {
+				names.add(entry.getName());
+			}
+		}
+		return names;
+	}
+
+	private static List<Long> readTimes(Path file) throws IOException {
+		List<Long> times = new ArrayList<>();
+		try (InputStream in = Files.newInputStream(file); ZipInputStream zipIn = new ZipInputStream(in)) {
+			ZipEntry entry;
+			while ((entry = zipIn.getNextEntry()) != null) {
+				times.add(entry.getTime());
+			}
+		}
+		return times;
+	}
+
+	private static ByteBuffer content(String s) {
+		return ByteBuffer.wrap(s.getBytes(StandardCharsets.UTF_8));
+	}
+}
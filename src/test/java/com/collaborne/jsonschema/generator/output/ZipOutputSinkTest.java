@@ -0,0 +1,56 @@
+/**
+ * Copyright (C) 2015 Collaborne B.V. (opensource@collaborne.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.collaborne.jsonschema.generator.output;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.junit.Test;
+
+import com.google.common.io.ByteStreams;
+
+public class ZipOutputSinkTest {
+	@Test
+	public void zipContainsEntries() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (ZipOutputSink sink = new ZipOutputSink(out)) {
+			sink.write("com/example/Foo.java", ByteBuffer.wrap("class Foo {}".getBytes(StandardCharsets.UTF_8)));
+			sink.write("com/example/Bar.java", ByteBuffer.wrap("class Bar {}".getBytes(StandardCharsets.UTF_8)));
+		}
+
+		List<String> names = new ArrayList<>();
+		try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+			ZipEntry entry;
+			while ((entry = in.getNextEntry()) != null) {
+				names.add(entry.getName());
+				String content = new String(ByteStreams.toByteArray(in), StandardCharsets.UTF_8);
+				assertTrue(content.startsWith("class "));
+			}
+		}
+		assertEquals(Arrays.asList("com/example/Foo.java", "com/example/Bar.java"), names);
+	}
+}
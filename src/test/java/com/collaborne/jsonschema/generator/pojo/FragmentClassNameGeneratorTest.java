@@ -0,0 +1,75 @@
+/**
+ * Copyright (C) 2015 Collaborne B.V. (opensource@collaborne.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.collaborne.jsonschema.generator.pojo;
+
+import static org.junit.Assert.assertEquals;
+
+import java.net.URI;
+
+import org.junit.Test;
+
+import com.collaborne.jsonschema.generator.pojo.PojoGenerator.AnonymousClassNameGenerator;
+
+public class FragmentClassNameGeneratorTest {
+	@Test
+	public void camelCaseEmptyFragmentReturnsType() {
+		assertEquals("Type", AnonymousClassNameGenerator.CAMEL_CASE.createClassName(URI.create("http://example.com/schema.json#")));
+		assertEquals("Type", AnonymousClassNameGenerator.CAMEL_CASE.createClassName(URI.create("http://example.com/schema.json")));
+	}
+
+	@Test
+	public void camelCaseSkipsTypicalSteps() {
+		URI type = URI.create("http://example.com/schema.json#/definitions/foo/properties/bar");
+		assertEquals("FooBar", AnonymousClassNameGenerator.CAMEL_CASE.createClassName(type));
+	}
+
+	@Test
+	public void camelCaseReplacesInvalidCharacters() {
+		URI type = URI.create("http://example.com/schema.json#/properties/1st-value/properties/some%20thing");
+		assertEquals("_1stvalueSomething", AnonymousClassNameGenerator.CAMEL_CASE.createClassName(type));
+	}
+
+	@Test
+	public void camelCaseSharedPrefixUsesSameName() {
+		AnonymousClassNameGenerator generator = new FragmentClassNameGenerator("test", "");
+		assertEquals("FooBar", generator.createClassName(URI.create("http://example.com/a.json#/properties/foo/properties/bar")));
+		assertEquals("FooBaz", generator.createClassName(URI.create("http://example.com/b.json#/properties/foo/properties/baz")));
+		assertEquals("Foo", generator.createClassName(URI.create("http://example.com/b.json#/properties/foo")));
+	}
+
+	@Test
+	public void boundedCacheReturnsSameNamesAfterEviction() {
+		AnonymousClassNameGenerator generator = new FragmentClassNameGenerator("test", "", 1);
+		for (int i = 0; i < 2; i++) {
+			assertEquals("FooBar", generator.createClassName(URI.create("http://example.com/a.json#/properties/foo/properties/bar")));
+			assertEquals("QuxBaz", generator.createClassName(URI.create("http://example.com/b.json#/properties/qux/properties/baz")));
+		}
+	}
+
+	@Test
+	public void dollarJoinsSteps() {
+		URI type = URI.create("http://example.com/schema.json#/definitions/foo/properties/bar/items");
+		assertEquals("Foo$Bar$Items", AnonymousClassNameGenerator.DOLLAR.createClassName(type));
+	}
+
+	@Test
+	public void dollarDistinguishesStepBoundaries() {
+		String first = AnonymousClassNameGenerator.DOLLAR.createClassName(URI.create("http://example.com/schema.json#/a/bc"));
+		String second = AnonymousClassNameGenerator.DOLLAR.createClassName(URI.create("http://example.com/schema.json#/ab/c"));
+		assertEquals("A$Bc", first);
+		assertEquals("Ab$C", second);
+	}
+}
@@ -15,6 +15,11 @@
  */
 package com.collaborne.jsonschema.generator.pojo;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
@@ -28,6 +33,14 @@ import java.nio.file.Paths;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 import org.junit.After;
 import org.junit.Before;
@@ -37,10 +50,19 @@ import org.junit.rules.TestName;
 
 import com.collaborne.jsonschema.generator.CodeGenerationException;
 import com.collaborne.jsonschema.generator.Generator;
+import com.collaborne.jsonschema.generator.Generator.Feature;
+import com.collaborne.jsonschema.generator.compile.InMemorySourceCompiler;
+import com.collaborne.jsonschema.generator.driver.GeneratorDriver;
 import com.collaborne.jsonschema.generator.java.ClassName;
+import com.collaborne.jsonschema.generator.metrics.GenerationMetrics;
+import com.collaborne.jsonschema.generator.metrics.GenerationMetrics.Phase;
 import com.collaborne.jsonschema.generator.model.Mapping;
+import com.collaborne.jsonschema.generator.output.InMemoryOutputSink;
 import com.collaborne.jsonschema.generator.pojo.PojoGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.github.fge.jackson.JsonNodeReader;
 import com.github.fge.jsonschema.core.load.SchemaLoader;
 import com.github.fge.jsonschema.core.load.configuration.LoadingConfiguration;
@@ -91,15 +113,30 @@ public class PojoGeneratorSmokeTest {
 		});
 	}
 
-	private SchemaLoader loadSchema(URI rootUri, String path) throws IOException {
+	private SchemaLoader loadSchema(URI rootUri, String... paths) throws IOException {
 		LoadingConfigurationBuilder loadingConfigurationBuilder = LoadingConfiguration.newBuilder();
 
-		JsonNode schemaNode = new JsonNodeReader().fromInputStream(getClass().getResourceAsStream(path));
-		loadingConfigurationBuilder.preloadSchema(rootUri.resolve(path).toASCIIString(), schemaNode);
+		for (String path : paths) {
+			JsonNode schemaNode = new JsonNodeReader().fromInputStream(getClass().getResourceAsStream(path));
+			loadingConfigurationBuilder.preloadSchema(rootUri.resolve(path).toASCIIString(), schemaNode);
+		}
 
 		return new SchemaLoader(loadingConfigurationBuilder.freeze());
 	}
 
+	private static ClassLoader createClassLoader(InMemoryOutputSink classOutput) {
+		return new ClassLoader(PojoGeneratorSmokeTest.class.getClassLoader()) {
+			@Override
+			protected Class<?> findClass(String name) throws ClassNotFoundException {
+				byte[] classFile = classOutput.getContent(name.replace('.', '/') + ".class");
+				if (classFile == null) {
+					throw new ClassNotFoundException(name);
+				}
+				return defineClass(name, classFile, 0, classFile.length);
+			}
+		};
+	}
+
 	@Test
 	public void runSmokeTest() throws IOException, CodeGenerationException {
 		URI rootUri = URI.create("http://example.com/");
@@ -185,4 +222,485 @@ public class PojoGeneratorSmokeTest {
 		Path generatedInlineTypeFile = outputDirectory.resolve("com/example/test/schemas/Inline.java");
 		assertTrue(Files.exists(generatedInlineTypeFile));
 	}
+
+	@Test(expected=CodeGenerationException.class)
+	public void runSmokeTestRecursive() throws IOException, CodeGenerationException {
+		URI rootUri = URI.create("http://example.com/");
+
+		Path outputDirectory = fs.getPath("output");
+		generator.setOutputDirectory(outputDirectory);
+
+		SchemaLoader schemas = loadSchema(rootUri, "/schemas/recursive.json");
+		generator.setSchemaLoader(schemas);
+
+		Mapping rootMapping = new Mapping(URI.create("http://example.com/schemas/recursive.json#"), new ClassName("com.example.test.schemas", "Recursive"));
+		generator.addMapping(rootMapping.getTarget(), rootMapping);
+
+		generator.generate(rootMapping.getTarget());
+	}
+
+	@Test
+	public void runSmokeTestParallel() throws IOException, CodeGenerationException {
+		URI rootUri = URI.create("http://example.com/");
+
+		Path outputDirectory = fs.getPath("output");
+		generator.setOutputDirectory(outputDirectory);
+
+		SchemaLoader schemas = loadSchema(rootUri, "/schemas/simple.json", "/schemas/inline.json");
+		generator.setSchemaLoader(schemas);
+
+		Mapping typeMapping = new Mapping(URI.create("http://example.com/schemas/simple.json#/definitions/type"), new ClassName("com.example.test.schemas", "Type"));
+		generator.addMapping(typeMapping.getTarget(), typeMapping);
+		Mapping withInlineMapping = new Mapping(URI.create("http://example.com/schemas/inline.json#"), new ClassName("com.example.test.schemas", "WithInline"));
+		generator.addMapping(withInlineMapping.getTarget(), withInlineMapping);
+		Mapping inlineMapping = new Mapping(URI.create("http://example.com/schemas/inline.json#/properties/inline"), new ClassName("com.example.test.schemas", "Inline"));
+		generator.addMapping(inlineMapping.getTarget(), inlineMapping);
+
+		GeneratorDriver driver = new GeneratorDriver(generator);
+		driver.setParallelism(4);
+		driver.generate(Arrays.asList(typeMapping.getTarget(), withInlineMapping.getTarget(), inlineMapping.getTarget()));
+
+		assertTrue(Files.exists(outputDirectory.resolve("com/example/test/schemas/Type.java")));
+		assertTrue(Files.exists(outputDirectory.resolve("com/example/test/schemas/WithInline.java")));
+		assertTrue(Files.exists(outputDirectory.resolve("com/example/test/schemas/Inline.java")));
+	}
+
+	@Test
+	public void runSmokeTestReproducible() throws IOException, CodeGenerationException {
+		URI rootUri = URI.create("http://example.com/");
+		List<URI> types = Arrays.asList(
+			URI.create("http://example.com/schemas/simple.json#/definitions/type"),
+			URI.create("http://example.com/schemas/inline.json#"));
+
+		InMemoryOutputSink outputSink = new InMemoryOutputSink();
+		generator.setOutputSink(outputSink);
+		generator.setFeature(Generator.FEATURE_REPRODUCIBLE, Boolean.TRUE);
+		generator.setSchemaLoader(loadSchema(rootUri, "/schemas/simple.json", "/schemas/inline.json"));
+		GeneratorDriver driver = new GeneratorDriver(generator);
+		driver.setParallelism(4);
+		driver.generate(types);
+		generator.finish();
+
+		List<URI> reversedTypes = new ArrayList<>(types);
+		Collections.reverse(reversedTypes);
+		InMemoryOutputSink secondOutputSink = new InMemoryOutputSink();
+		Generator secondGenerator = Guice.createInjector().getInstance(PojoGenerator.class);
+		secondGenerator.setOutputSink(secondOutputSink);
+		secondGenerator.setFeature(Generator.FEATURE_REPRODUCIBLE, Boolean.TRUE);
+		secondGenerator.setSchemaLoader(loadSchema(rootUri, "/schemas/inline.json", "/schemas/simple.json"));
+		new GeneratorDriver(secondGenerator).generate(reversedTypes);
+		secondGenerator.finish();
+
+		assertEquals(outputSink.getFiles().keySet(), secondOutputSink.getFiles().keySet());
+		for (String fileName : outputSink.getFiles().keySet()) {
+			assertArrayEquals(fileName, outputSink.getContent(fileName), secondOutputSink.getContent(fileName));
+		}
+
+		String hashIndex = new String(outputSink.getContent(PojoGenerator.HASH_INDEX_FILE_NAME), StandardCharsets.UTF_8);
+		List<String> lines = Arrays.asList(hashIndex.split("\n"));
+		List<String> sortedLines = new ArrayList<>(lines);
+		Collections.sort(sortedLines);
+		assertEquals(sortedLines, lines);
+		assertEquals(outputSink.getFiles().size() - 1, lines.size());
+		for (String line : lines) {
+			assertTrue(line, line.matches("[\\w.$]+ [0-9a-f]{64}"));
+		}
+	}
+
+	@Test
+	public void runSmokeTestIncrementalSkipsUnchangedTypes() throws IOException, CodeGenerationException {
+		URI rootUri = URI.create("http://example.com/");
+		Path outputDirectory = fs.getPath("output");
+		Mapping rootMapping = new Mapping(URI.create("http://example.com/schemas/inline.json#"), new ClassName("com.example.test.schemas", "WithInline"));
+		Path generatedTypeFile = outputDirectory.resolve("com/example/test/schemas/WithInline.java");
+
+		generator.setOutputDirectory(outputDirectory);
+		generator.setSchemaLoader(loadSchema(rootUri, "/schemas/inline.json"));
+		generator.setFeature(PojoGenerator.FEATURE_INCREMENTAL, Boolean.TRUE);
+		generator.addMapping(rootMapping.getTarget(), rootMapping);
+		generator.generate(rootMapping.getTarget());
+		generator.finish();
+		assertTrue(Files.exists(outputDirectory.resolve(PojoGenerator.MANIFEST_FILE_NAME)));
+
+		// Mark the generated file, so we can see whether it gets written again
+		byte[] marker = "// marker".getBytes(StandardCharsets.UTF_8);
+		Files.write(generatedTypeFile, marker);
+
+		Generator secondGenerator = Guice.createInjector().getInstance(PojoGenerator.class);
+		secondGenerator.setOutputDirectory(outputDirectory);
+		secondGenerator.setSchemaLoader(loadSchema(rootUri, "/schemas/inline.json"));
+		secondGenerator.setFeature(PojoGenerator.FEATURE_INCREMENTAL, Boolean.TRUE);
+		secondGenerator.addMapping(rootMapping.getTarget(), rootMapping);
+		secondGenerator.generate(rootMapping.getTarget());
+		secondGenerator.finish();
+		assertArrayEquals(marker, Files.readAllBytes(generatedTypeFile));
+
+		// Changing the mapping must generate the type again
+		Mapping changedRootMapping = new Mapping(rootMapping.getTarget(), rootMapping.getClassName());
+		changedRootMapping.setIgnoreAdditionalProperties(true);
+		Generator thirdGenerator = Guice.createInjector().getInstance(PojoGenerator.class);
+		thirdGenerator.setOutputDirectory(outputDirectory);
+		thirdGenerator.setSchemaLoader(loadSchema(rootUri, "/schemas/inline.json"));
+		thirdGenerator.setFeature(PojoGenerator.FEATURE_INCREMENTAL, Boolean.TRUE);
+		thirdGenerator.addMapping(changedRootMapping.getTarget(), changedRootMapping);
+		thirdGenerator.generate(changedRootMapping.getTarget());
+		thirdGenerator.finish();
+		assertFalse(Arrays.equals(marker, Files.readAllBytes(generatedTypeFile)));
+	}
+
+	@Test
+	public void runSmokeTestIncrementalKeepsNamesOfPreviousRun() throws IOException, CodeGenerationException {
+		Path outputDirectory = fs.getPath("output");
+		URI previousType = URI.create("http://example.com/schemas/simple.json#/definitions/type");
+		URI newType = URI.create("http://other.example.com/schemas/simple.json#/definitions/type");
+
+		generator.setOutputDirectory(outputDirectory);
+		generator.setSchemaLoader(loadSchema(URI.create("http://example.com/"), "/schemas/simple.json"));
+		generator.setFeature(PojoGenerator.FEATURE_INCREMENTAL, Boolean.TRUE);
+		ClassName previousClassName = generator.generate(previousType);
+		generator.finish();
+
+		// The new type wants the same name, which the previous run still owns
+		Generator secondGenerator = Guice.createInjector().getInstance(PojoGenerator.class);
+		secondGenerator.setOutputDirectory(outputDirectory);
+		secondGenerator.setSchemaLoader(loadSchema(URI.create("http://other.example.com/"), "/schemas/simple.json"));
+		secondGenerator.setFeature(PojoGenerator.FEATURE_INCREMENTAL, Boolean.TRUE);
+		ClassName incrementalClassName = secondGenerator.generate(newType);
+		secondGenerator.finish();
+		assertNotEquals(previousClassName, incrementalClassName);
+
+		// A clean run gives the new type the plain name
+		Generator cleanGenerator = Guice.createInjector().getInstance(PojoGenerator.class);
+		cleanGenerator.setOutputDirectory(fs.getPath("clean"));
+		cleanGenerator.setSchemaLoader(loadSchema(URI.create("http://other.example.com/"), "/schemas/simple.json"));
+		ClassName cleanClassName = cleanGenerator.generate(newType);
+		cleanGenerator.finish();
+		assertEquals(previousClassName, cleanClassName);
+	}
+
+	@Test
+	public void runSmokeTestIncrementalWithCompilerCompilesUnchangedTypes() throws IOException, CodeGenerationException {
+		URI rootUri = URI.create("http://example.com/");
+		Path outputDirectory = fs.getPath("output");
+		Mapping rootMapping = new Mapping(URI.create("http://example.com/schemas/inline.json#"), new ClassName("com.example.test.schemas", "WithInline"));
+
+		generator.setOutputDirectory(outputDirectory);
+		generator.setSchemaLoader(loadSchema(rootUri, "/schemas/inline.json"));
+		generator.setFeature(PojoGenerator.FEATURE_INCREMENTAL, Boolean.TRUE);
+		generator.addMapping(rootMapping.getTarget(), rootMapping);
+		generator.generate(rootMapping.getTarget());
+		generator.finish();
+
+		// Nothing changed, but the compiler still needs all sources
+		Generator secondGenerator = Guice.createInjector().getInstance(PojoGenerator.class);
+		InMemoryOutputSink classOutput = new InMemoryOutputSink();
+		InMemorySourceCompiler sourceCompiler = new InMemorySourceCompiler(classOutput);
+		secondGenerator.setSourceCompiler(sourceCompiler);
+		secondGenerator.setOutputDirectory(outputDirectory);
+		secondGenerator.setSchemaLoader(loadSchema(rootUri, "/schemas/inline.json"));
+		secondGenerator.setFeature(PojoGenerator.FEATURE_INCREMENTAL, Boolean.TRUE);
+		secondGenerator.addMapping(rootMapping.getTarget(), rootMapping);
+		secondGenerator.generate(rootMapping.getTarget());
+		secondGenerator.finish();
+		sourceCompiler.compile();
+
+		assertTrue(classOutput.getFiles().containsKey("com/example/test/schemas/WithInline.class"));
+	}
+
+	@Test
+	public void runSmokeTestPruneDeletesStaleFiles() throws IOException, CodeGenerationException {
+		URI rootUri = URI.create("http://example.com/");
+		Path outputDirectory = fs.getPath("output");
+		Mapping inlineMapping = new Mapping(URI.create("http://example.com/schemas/inline.json#"), new ClassName("com.example.test.inline", "WithInline"));
+		Mapping simpleMapping = new Mapping(URI.create("http://example.com/schemas/simple.json#/definitions/type"), new ClassName("com.example.test.simple", "Type"));
+
+		generator.setOutputDirectory(outputDirectory);
+		generator.setSchemaLoader(loadSchema(rootUri, "/schemas/inline.json", "/schemas/simple.json"));
+		generator.setFeature(PojoGenerator.FEATURE_PRUNE_STALE_FILES, Boolean.TRUE);
+		generator.addMapping(inlineMapping.getTarget(), inlineMapping);
+		generator.addMapping(simpleMapping.getTarget(), simpleMapping);
+		generator.generate(inlineMapping.getTarget());
+		generator.generate(simpleMapping.getTarget());
+		generator.finish();
+		assertTrue(Files.exists(outputDirectory.resolve("com/example/test/inline/WithInline.java")));
+
+		// Files that the generator did not produce must be left alone
+		Path otherFile = outputDirectory.resolve("com/example/test/Other.java");
+		Files.write(otherFile, "// other".getBytes(StandardCharsets.UTF_8));
+
+		Generator secondGenerator = Guice.createInjector().getInstance(PojoGenerator.class);
+		secondGenerator.setOutputDirectory(outputDirectory);
+		secondGenerator.setSchemaLoader(loadSchema(rootUri, "/schemas/simple.json"));
+		secondGenerator.setFeature(PojoGenerator.FEATURE_PRUNE_STALE_FILES, Boolean.TRUE);
+		secondGenerator.addMapping(simpleMapping.getTarget(), simpleMapping);
+		secondGenerator.generate(simpleMapping.getTarget());
+		secondGenerator.finish();
+
+		assertTrue(Files.exists(outputDirectory.resolve("com/example/test/simple/Type.java")));
+		assertFalse(Files.exists(outputDirectory.resolve("com/example/test/inline")));
+		assertTrue(Files.exists(otherFile));
+	}
+
+	@Test
+	public void runSmokeTestWriteIfChangedSkipsUnchangedFiles() throws IOException, CodeGenerationException {
+		URI rootUri = URI.create("http://example.com/");
+		Path outputDirectory = fs.getPath("output");
+		Mapping rootMapping = new Mapping(URI.create("http://example.com/schemas/simple.json#/definitions/type"), new ClassName("com.example.test.schemas", "Type"));
+		Path generatedTypeFile = outputDirectory.resolve("com/example/test/schemas/Type.java");
+
+		generator.setOutputDirectory(outputDirectory);
+		generator.setSchemaLoader(loadSchema(rootUri, "/schemas/simple.json"));
+		generator.setFeature(PojoGenerator.FEATURE_WRITE_IF_CHANGED, Boolean.TRUE);
+		generator.addMapping(rootMapping.getTarget(), rootMapping);
+		generator.generate(rootMapping.getTarget());
+		FileTime lastModifiedTime = FileTime.fromMillis(0);
+		Files.setLastModifiedTime(generatedTypeFile, lastModifiedTime);
+
+		PojoGenerator secondGenerator = Guice.createInjector().getInstance(PojoGenerator.class);
+		secondGenerator.setOutputDirectory(outputDirectory);
+		secondGenerator.setSchemaLoader(loadSchema(rootUri, "/schemas/simple.json"));
+		secondGenerator.setFeature(PojoGenerator.FEATURE_WRITE_IF_CHANGED, Boolean.TRUE);
+		secondGenerator.addMapping(rootMapping.getTarget(), rootMapping);
+		secondGenerator.generate(rootMapping.getTarget());
+
+		assertEquals(0, secondGenerator.getWrittenFileCount());
+		assertEquals(1, secondGenerator.getSkippedFileCount());
+		assertEquals(lastModifiedTime, Files.getLastModifiedTime(generatedTypeFile));
+	}
+
+	@Test
+	public void runSmokeTestInMemoryOutput() throws IOException, CodeGenerationException {
+		URI rootUri = URI.create("http://example.com/");
+
+		InMemoryOutputSink outputSink = new InMemoryOutputSink();
+		generator.setOutputSink(outputSink);
+
+		SchemaLoader schemas = loadSchema(rootUri, "/schemas/inline.json");
+		generator.setSchemaLoader(schemas);
+
+		Mapping rootMapping = new Mapping(URI.create("http://example.com/schemas/inline.json#"), new ClassName("com.example.test.schemas", "WithInline"));
+		generator.addMapping(rootMapping.getTarget(), rootMapping);
+
+		generator.generate(rootMapping.getTarget());
+		generator.finish();
+
+		assertTrue(outputSink.getFiles().containsKey("com/example/test/schemas/WithInline.java"));
+		assertFalse(Files.exists(fs.getPath("com/example/test/schemas/WithInline.java")));
+
+		GenerationMetrics metrics = generator.getMetrics();
+		assertEquals(outputSink.getFiles().size(), metrics.getGeneratedTypes());
+		assertEquals(outputSink.getFiles().size(), metrics.getCount(Phase.WRITE_SOURCE));
+		long emittedBytes = 0;
+		for (byte[] content : outputSink.getFiles().values()) {
+			emittedBytes += content.length;
+		}
+		assertEquals(emittedBytes, metrics.getEmittedBytes());
+	}
+
+	@Test
+	public void runSmokeTestWriteThreads() throws IOException, CodeGenerationException {
+		URI rootUri = URI.create("http://example.com/");
+
+		Path outputDirectory = fs.getPath("output");
+		generator.setOutputDirectory(outputDirectory);
+		generator.setFeature(PojoGenerator.FEATURE_WRITE_THREADS, 2);
+		generator.setFeature(PojoGenerator.FEATURE_MAX_PENDING_WRITES, 1);
+
+		SchemaLoader schemas = loadSchema(rootUri, "/schemas/inline.json");
+		generator.setSchemaLoader(schemas);
+
+		Mapping rootMapping = new Mapping(URI.create("http://example.com/schemas/inline.json#"), new ClassName("com.example.test.schemas", "WithInline"));
+		generator.addMapping(rootMapping.getTarget(), rootMapping);
+
+		generator.generate(rootMapping.getTarget());
+		generator.finish();
+
+		assertTrue(Files.isRegularFile(outputDirectory.resolve("com/example/test/schemas/WithInline.java")));
+	}
+
+	@Test
+	public void runSmokeTestCompile() throws IOException, CodeGenerationException {
+		URI rootUri = URI.create("http://example.com/");
+
+		InMemoryOutputSink outputSink = new InMemoryOutputSink();
+		generator.setOutputSink(outputSink);
+		InMemoryOutputSink classOutput = new InMemoryOutputSink();
+		InMemorySourceCompiler sourceCompiler = new InMemorySourceCompiler(classOutput);
+		generator.setSourceCompiler(sourceCompiler);
+
+		SchemaLoader schemas = loadSchema(rootUri, "/schemas/inline.json");
+		generator.setSchemaLoader(schemas);
+
+		Mapping rootMapping = new Mapping(URI.create("http://example.com/schemas/inline.json#"), new ClassName("com.example.test.schemas", "WithInline"));
+		generator.addMapping(rootMapping.getTarget(), rootMapping);
+
+		generator.generate(rootMapping.getTarget());
+		generator.finish();
+		sourceCompiler.compile();
+
+		assertEquals(outputSink.getFiles().size(), sourceCompiler.getSourceCount());
+		assertTrue(classOutput.getFiles().containsKey("com/example/test/schemas/WithInline.class"));
+	}
+
+	/**
+	 * Generate and compile the types for {@code mapping}, with the given features enabled.
+	 *
+	 * @param path path of the schema resource, which is also its path below {@code http://example.com}
+	 * @param mapping mapping of the type to generate
+	 * @param features features to enable
+	 * @return the compiled class for the mapping
+	 */
+	@SafeVarargs
+	private final Class<?> compileSchema(String path, Mapping mapping, Feature<Boolean>... features) throws IOException, CodeGenerationException, ClassNotFoundException {
+		URI rootUri = URI.create("http://example.com/");
+
+		for (Feature<Boolean> feature : features) {
+			generator.setFeature(feature, Boolean.TRUE);
+		}
+		InMemoryOutputSink outputSink = new InMemoryOutputSink();
+		generator.setOutputSink(outputSink);
+		InMemoryOutputSink classOutput = new InMemoryOutputSink();
+		InMemorySourceCompiler sourceCompiler = new InMemorySourceCompiler(classOutput);
+		generator.setSourceCompiler(sourceCompiler);
+
+		SchemaLoader schemas = loadSchema(rootUri, path);
+		generator.setSchemaLoader(schemas);
+
+		generator.addMapping(mapping.getTarget(), mapping);
+
+		generator.generate(mapping.getTarget());
+		generator.finish();
+		sourceCompiler.compile();
+
+		return createClassLoader(classOutput).loadClass(mapping.getClassName().toString());
+	}
+
+	/**
+	 * Generate and compile the root type of the schema at {@code path} as {@code com.example.test.schemas.<className>}.
+	 *
+	 * @see #compileSchema(String, Mapping, Feature...)
+	 */
+	@SafeVarargs
+	private final Class<?> compileSchema(String path, String className, Feature<Boolean>... features) throws IOException, CodeGenerationException, ClassNotFoundException {
+		Mapping mapping = new Mapping(URI.create("http://example.com" + path + "#"), new ClassName("com.example.test.schemas", className));
+		return compileSchema(path, mapping, features);
+	}
+
+	@Test
+	public void runSmokeTestStreamingDeserializers() throws Exception {
+		Class<?> streamingClass = compileSchema("/schemas/streaming.json", "Streaming", PojoGenerator.FEATURE_STREAMING_DESERIALIZERS);
+		assertEquals("StreamingDeserializer", streamingClass.getAnnotation(JsonDeserialize.class).using().getSimpleName());
+
+		String json = "{\"name\": \"Jane\", \"count\": 3, \"ratio\": 0.5, \"active\": true, \"tags\": [\"a\", \"b\"], \"address\": {\"city\": \"Ghent\", \"zip\": \"9000\"}, \"extra\": \"x\", \"nothing\": null}";
+		Object streaming = new ObjectMapper().readValue(json, streamingClass);
+		assertEquals("Jane", streamingClass.getMethod("getName").invoke(streaming));
+		assertEquals(3, streamingClass.getMethod("getCount").invoke(streaming));
+		assertEquals(0.5, streamingClass.getMethod("getRatio").invoke(streaming));
+		assertEquals(Boolean.TRUE, streamingClass.getMethod("getActive").invoke(streaming));
+		assertEquals(Arrays.asList("a", "b"), streamingClass.getMethod("getTags").invoke(streaming));
+
+		Object address = streamingClass.getMethod("getAddress").invoke(streaming);
+		assertEquals("Ghent", address.getClass().getMethod("getCity").invoke(address));
+
+		Map<?, ?> additionalProperties = (Map<?, ?>) streaming;
+		assertEquals(2, additionalProperties.size());
+		assertEquals("x", additionalProperties.get("extra"));
+		assertTrue(additionalProperties.containsKey("nothing"));
+	}
+
+	@Test
+	public void runSmokeTestStreamingSerializers() throws Exception {
+		Class<?> streamingClass = compileSchema("/schemas/streaming.json", "Streaming", PojoGenerator.FEATURE_STREAMING_DESERIALIZERS, PojoGenerator.FEATURE_STREAMING_SERIALIZERS);
+		assertEquals("StreamingSerializer", streamingClass.getAnnotation(JsonSerialize.class).using().getSimpleName());
+
+		ObjectMapper objectMapper = new ObjectMapper();
+		String json = "{\"name\": \"Jane\", \"count\": 3, \"ratio\": 0.5, \"active\": true, \"tags\": [\"a\", \"b\"], \"address\": null, \"extra\": \"x\"}";
+		Object streaming = objectMapper.readValue(json, streamingClass);
+		String serialized = objectMapper.writeValueAsString(streaming);
+		assertTrue(serialized, serialized.startsWith("{\"name\":\"Jane\",\"count\":3,\"ratio\":0.5,\"active\":true,\"tags\":[\"a\",\"b\"],\"address\":null,"));
+		assertEquals(objectMapper.readTree(json), objectMapper.readTree(serialized));
+
+		byte[] utf8Serialized = objectMapper.writeValueAsBytes(streaming);
+		assertEquals(objectMapper.readTree(json), objectMapper.readTree(utf8Serialized));
+	}
+
+	@Test
+	public void runSmokeTestStreamingSkipsExtendingClasses() throws Exception {
+		Mapping mapping = new Mapping(URI.create("http://example.com/schemas/simple.json#/definitions/type"), new ClassName("com.example.test.schemas", "Type"));
+		mapping.setExtends(ClassName.create(Identified.class));
+		Class<?> typeClass = compileSchema("/schemas/simple.json", mapping, PojoGenerator.FEATURE_STREAMING_DESERIALIZERS, PojoGenerator.FEATURE_STREAMING_SERIALIZERS);
+
+		// The streaming code would lose the properties of the extended class
+		assertNull(typeClass.getAnnotation(JsonDeserialize.class));
+		assertNull(typeClass.getAnnotation(JsonSerialize.class));
+
+		ObjectMapper objectMapper = new ObjectMapper();
+		Object type = objectMapper.readValue("{\"id\": \"1\", \"key\": \"k\"}", typeClass);
+		assertEquals("1", ((Identified) type).getId());
+		assertEquals("k", typeClass.getMethod("getKey").invoke(type));
+		assertEquals(objectMapper.readTree("{\"id\": \"1\", \"key\": \"k\"}"), objectMapper.readTree(objectMapper.writeValueAsString(type)));
+	}
+
+	@Test
+	public void runSmokeTestStreamingSerializersCollidingNames() throws Exception {
+		Class<?> streamingNamesClass = compileSchema("/schemas/streaming-names.json", "StreamingNames", PojoGenerator.FEATURE_STREAMING_DESERIALIZERS, PojoGenerator.FEATURE_STREAMING_SERIALIZERS);
+		ObjectMapper objectMapper = new ObjectMapper();
+		String json = "{\"fooBar\": \"a\", \"foo_bar\": \"b\", \"foo\": \"c\", \"FOO\": \"d\", \"entry\": \"e\"}";
+		Object streamingNames = objectMapper.readValue(json, streamingNamesClass);
+		assertEquals(objectMapper.readTree(json), objectMapper.readTree(objectMapper.writeValueAsString(streamingNames)));
+	}
+
+	@Test
+	public void runSmokeTestPrimitiveItemsBoxed() throws Exception {
+		Class<?> primitiveArraysClass = compileSchema("/schemas/primitive-arrays.json", "PrimitiveArrays");
+		assertEquals("java.util.List<java.lang.Integer>", primitiveArraysClass.getMethod("getCounts").getGenericReturnType().getTypeName());
+		assertEquals("java.util.List<java.lang.Double>", primitiveArraysClass.getMethod("getSamples").getGenericReturnType().getTypeName());
+		assertEquals("java.util.List<java.lang.Boolean>", primitiveArraysClass.getMethod("getFlags").getGenericReturnType().getTypeName());
+	}
+
+	@Test
+	public void runSmokeTestPrimitiveArrays() throws Exception {
+		Class<?> primitiveArraysClass = compileSchema("/schemas/primitive-arrays.json", "PrimitiveArrays", PojoGenerator.FEATURE_PRIMITIVE_ARRAYS, PojoGenerator.FEATURE_STREAMING_DESERIALIZERS, PojoGenerator.FEATURE_STREAMING_SERIALIZERS);
+		assertEquals(int[].class, primitiveArraysClass.getMethod("getCounts").getReturnType());
+		assertEquals(double[].class, primitiveArraysClass.getMethod("getSamples").getReturnType());
+		assertEquals(boolean[].class, primitiveArraysClass.getMethod("getFlags").getReturnType());
+
+		ObjectMapper objectMapper = new ObjectMapper();
+		String json = "{\"counts\":[1,2,3],\"samples\":[0.5],\"flags\":[true,false]}";
+		Object primitiveArrays = objectMapper.readValue(json, primitiveArraysClass);
+		assertArrayEquals(new int[] { 1, 2, 3 }, (int[]) primitiveArraysClass.getMethod("getCounts").invoke(primitiveArrays));
+		assertEquals(json, objectMapper.writeValueAsString(primitiveArrays));
+	}
+
+	@Test
+	public void runSmokeTestSourceJar() throws IOException, CodeGenerationException {
+		URI rootUri = URI.create("http://example.com/");
+
+		Path sourceJar = fs.getPath("output/sources.srcjar");
+		generator.setOutputDirectory(sourceJar);
+		generator.setFeature(Generator.FEATURE_SOURCE_JAR, Boolean.TRUE);
+		// Entries are only sorted for reproducible output
+		generator.setFeature(Generator.FEATURE_REPRODUCIBLE, Boolean.TRUE);
+
+		SchemaLoader schemas = loadSchema(rootUri, "/schemas/inline.json");
+		generator.setSchemaLoader(schemas);
+
+		Mapping rootMapping = new Mapping(URI.create("http://example.com/schemas/inline.json#"), new ClassName("com.example.test.schemas", "WithInline"));
+		generator.addMapping(rootMapping.getTarget(), rootMapping);
+
+		generator.generate(rootMapping.getTarget());
+		generator.finish();
+
+		assertTrue(Files.isRegularFile(sourceJar));
+		List<String> entries = new ArrayList<>();
+		try (ZipInputStream in = new ZipInputStream(Files.newInputStream(sourceJar))) {
+			for (ZipEntry entry = in.getNextEntry(); entry != null; entry = in.getNextEntry()) {
+				entries.add(entry.getName());
+			}
+		}
+		assertTrue(entries.contains("com/example/test/schemas/WithInline.java"));
+		List<String> sortedEntries = new ArrayList<>(entries);
+		Collections.sort(sortedEntries);
+		assertEquals(sortedEntries, entries);
+	}
 }
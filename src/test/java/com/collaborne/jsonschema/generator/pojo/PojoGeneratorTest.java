@@ -17,10 +17,14 @@ package com.collaborne.jsonschema.generator.pojo;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 
 import java.io.IOException;
 import java.io.StringReader;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -103,6 +107,30 @@ public class PojoGeneratorTest {
 		assertEquals(packageName, mapping.getClassName().getPackageName());
 	}
 
+	@Test
+	public void generateMappingCollisionCreatesDeterministicUniqueName() {
+		URI type = URI.create("http://example.com/a.json#/definitions/value");
+		URI otherType = URI.create("http://example.com/b.json#/properties/value");
+
+		PojoGenerator generator = new PojoGenerator(null, null, null);
+		ClassName className = generator.generateMapping(type).getClassName();
+		ClassName otherClassName = generator.generateMapping(otherType).getClassName();
+		assertEquals(className.getRawClassName(), "Value");
+		assertNotEquals(className, otherClassName);
+
+		PojoGenerator secondGenerator = new PojoGenerator(null, null, null);
+		secondGenerator.generateMapping(type);
+		assertEquals(otherClassName, secondGenerator.generateMapping(otherType).getClassName());
+	}
+
+	@Test
+	public void generateMappingSameTypeReturnsSameName() {
+		URI type = URI.create("http://example.com/a.json#/definitions/value");
+
+		PojoGenerator generator = new PojoGenerator(null, null, null);
+		assertEquals(generator.generateMapping(type).getClassName(), generator.generateMapping(type).getClassName());
+	}
+
 	@Test
 	public void getSchemaTypeReturnsTypeKeyword() throws IOException, CodeGenerationException {
 		URI type = URI.create("http://example.com/#");
@@ -162,4 +190,27 @@ public class PojoGeneratorTest {
 		SchemaTree schema = schemaLoader.load(schemaNode);
 		generator.getSchemaType(type, schema);
 	}
+
+	@Test
+	public void bufferEncodesUtf8() {
+		PojoGenerator.Buffer buffer = new PojoGenerator.Buffer();
+		buffer.write("/** Gr\u00fc\u00dfe \u2603 */");
+		ByteBuffer content = buffer.getByteBuffer();
+		byte[] bytes = new byte[content.remaining()];
+		content.get(bytes);
+		assertEquals("/** Gr\u00fc\u00dfe \u2603 */", new String(bytes, StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void bufferResetDiscardsContent() {
+		PojoGenerator.Buffer buffer = new PojoGenerator.Buffer();
+		char[] large = new char[20000];
+		Arrays.fill(large, 'x');
+		buffer.write(large, 0, large.length);
+		assertEquals(large.length, buffer.getByteBuffer().remaining());
+
+		buffer.reset();
+		buffer.write("class Foo {}");
+		assertEquals(ByteBuffer.wrap("class Foo {}".getBytes(StandardCharsets.UTF_8)), buffer.getByteBuffer());
+	}
 }
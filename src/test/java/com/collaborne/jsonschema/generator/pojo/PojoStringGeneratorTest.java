@@ -16,15 +16,33 @@
 package com.collaborne.jsonschema.generator.pojo;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.StringReader;
+import java.io.StringWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 import org.junit.Before;
 import org.junit.Test;
 
 import com.collaborne.jsonschema.generator.CodeGenerationException;
+import com.collaborne.jsonschema.generator.compile.InMemorySourceCompiler;
 import com.collaborne.jsonschema.generator.java.ClassName;
+import com.collaborne.jsonschema.generator.java.JavaWriter;
+import com.collaborne.jsonschema.generator.java.Kind;
+import com.collaborne.jsonschema.generator.model.Mapping;
+import com.collaborne.jsonschema.generator.output.InMemoryOutputSink;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.github.fge.jackson.JsonNodeReader;
 import com.github.fge.jsonschema.core.load.SchemaLoader;
@@ -48,4 +66,78 @@ public class PojoStringGeneratorTest {
 		ClassName generated = generator.generate(null, schema, null);
 		assertEquals(ClassName.create(String.class), generated);
 	}
+
+	private Class<?> compileEnum(Kind enumStyle, boolean interned) throws IOException, CodeGenerationException, ClassNotFoundException {
+		JsonNode schemaNode = jsonNodeReader.fromReader(new StringReader("{\"type\": \"string\", \"enum\": [\"red\", \"green\", \"blue\"]}"));
+		SchemaTree schema = schemaLoader.load(schemaNode);
+		URI type = URI.create("http://example.com/color.json#");
+		ClassName className = new ClassName("com.example.test", "Color");
+		PojoGenerator pojoGenerator = new PojoGenerator(null, null, null);
+		pojoGenerator.setFeature(PojoGenerator.FEATURE_ENUM_STYLE, enumStyle);
+		pojoGenerator.setFeature(PojoGenerator.FEATURE_INTERN_CLASS_ENUMS, interned);
+		PojoCodeGenerationContext context = new PojoCodeGenerationContext(pojoGenerator, new Mapping(type, className));
+
+		StringWriter source = new StringWriter();
+		try (JavaWriter writer = new JavaWriter(new BufferedWriter(source))) {
+			new PojoStringGenerator().generate(context, schema, writer);
+		}
+
+		InMemoryOutputSink classOutput = new InMemoryOutputSink();
+		InMemorySourceCompiler compiler = new InMemorySourceCompiler(classOutput);
+		compiler.addSource("com/example/test/Color.java", ByteBuffer.wrap(source.toString().getBytes(StandardCharsets.UTF_8)), type);
+		compiler.compile();
+		byte[] classFile = classOutput.getContent("com/example/test/Color.class");
+		return new ClassLoader(getClass().getClassLoader()) {
+			{
+				defineClass("com.example.test.Color", classFile, 0, classFile.length);
+			}
+		}.loadClass("com.example.test.Color");
+	}
+
+	private static void assertParse(Class<?> enumClass) throws ReflectiveOperationException {
+		Method parse = enumClass.getMethod("parse", String.class);
+		assertSame(enumClass.getField("GREEN").get(null), parse.invoke(null, "green"));
+		assertSame(enumClass.getField("BLUE").get(null), parse.invoke(null, "blue"));
+		for (String unknownValue : new String[] { "GREEN", null }) {
+			try {
+				parse.invoke(null, unknownValue);
+				fail("Parsed unknown value " + unknownValue);
+			} catch (InvocationTargetException e) {
+				assertEquals(IllegalArgumentException.class, e.getCause().getClass());
+			}
+		}
+	}
+
+	@Test
+	public void generateEnumParseReturnsConstant() throws Exception {
+		assertParse(compileEnum(Kind.ENUM, false));
+	}
+
+	@Test
+	public void generateClassEnumParseReturnsConstant() throws Exception {
+		Class<?> enumClass = compileEnum(Kind.CLASS, false);
+		assertParse(enumClass);
+
+		List<?> values = (List<?>) enumClass.getMethod("values").invoke(null);
+		assertEquals(3, values.size());
+		assertSame(enumClass.getField("RED").get(null), values.get(0));
+		assertSame(values, enumClass.getMethod("values").invoke(null));
+	}
+
+	@Test
+	public void generateInternedClassEnumValueOfReturnsCanonicalInstance() throws Exception {
+		Class<?> enumClass = compileEnum(Kind.CLASS, true);
+		assertParse(enumClass);
+		assertFalse(Modifier.isPublic(enumClass.getDeclaredConstructor(String.class).getModifiers()));
+
+		Method valueOf = enumClass.getMethod("valueOf", String.class);
+		Object green = enumClass.getField("GREEN").get(null);
+		assertSame(green, valueOf.invoke(null, "green"));
+
+		Object purple = valueOf.invoke(null, "purple");
+		assertEquals("purple", purple.toString());
+		assertSame(purple, valueOf.invoke(null, new String("purple")));
+		assertEquals("purple".hashCode(), purple.hashCode());
+		assertNotEquals(green, purple);
+	}
 }
@@ -0,0 +1,105 @@
+/**
+ * Copyright (C) 2015 Collaborne B.V. (opensource@collaborne.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.collaborne.jsonschema.generator.pojo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.collaborne.jsonschema.generator.CodeGenerationException;
+
+public class WriteQueueTest {
+	@Test
+	public void awaitCompletionWaitsForAllWrites() throws IOException, CodeGenerationException {
+		WriteQueue writeQueue = new WriteQueue(2, 2);
+		AtomicInteger completedWrites = new AtomicInteger();
+		try {
+			for (int i = 0; i < 20; i++) {
+				writeQueue.submit(URI.create("http://example.com/#/" + i), () -> {
+					try {
+						Thread.sleep(1);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					completedWrites.incrementAndGet();
+				});
+			}
+			writeQueue.awaitCompletion();
+		} finally {
+			writeQueue.shutdown();
+		}
+		assertEquals(20, completedWrites.get());
+	}
+
+	@Test
+	public void submitBlocksWhileMaximumPendingWritesReached() throws Exception {
+		WriteQueue writeQueue = new WriteQueue(1, 1);
+		CountDownLatch release = new CountDownLatch(1);
+		try {
+			writeQueue.submit(URI.create("http://example.com/#/blocked"), () -> {
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+
+			CountDownLatch submitted = new CountDownLatch(1);
+			Thread submitter = new Thread(() -> {
+				try {
+					writeQueue.submit(URI.create("http://example.com/#/waiting"), () -> {});
+					submitted.countDown();
+				} catch (IOException e) {
+					// Test fails on the count below
+				}
+			});
+			submitter.start();
+			submitter.join(100);
+			assertEquals(1, submitted.getCount());
+
+			release.countDown();
+			submitter.join();
+			assertEquals(0, submitted.getCount());
+			writeQueue.awaitCompletion();
+		} finally {
+			writeQueue.shutdown();
+		}
+	}
+
+	@Test
+	public void awaitCompletionThrowsCodeGenerationExceptionForFailedWrites() throws IOException {
+		WriteQueue writeQueue = new WriteQueue(1, 4);
+		URI firstType = URI.create("http://example.com/#/first");
+		URI secondType = URI.create("http://example.com/#/second");
+		try {
+			writeQueue.submit(firstType, () -> { throw new IOException("first"); });
+			writeQueue.submit(secondType, () -> { throw new IOException("second"); });
+			writeQueue.awaitCompletion();
+			fail("Expected a CodeGenerationException");
+		} catch (CodeGenerationException e) {
+			assertEquals(firstType, e.getType());
+			assertEquals(1, e.getSuppressed().length);
+		} finally {
+			writeQueue.shutdown();
+		}
+	}
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright (C) 2015 Collaborne B.V. (opensource@collaborne.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.collaborne.jsonschema.generator.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.Test;
+
+import com.collaborne.jsonschema.generator.CodeGenerationException;
+import com.collaborne.jsonschema.generator.java.ClassName;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.fge.jackson.JsonNodeReader;
+
+public class RuntimeClassCompilerTest {
+	private static final String PERSON_SCHEMA = "{\"type\": \"object\", \"properties\": {\"name\": {\"type\": \"string\"}, \"address\": {\"type\": \"object\", \"properties\": {\"city\": {\"type\": \"string\"}}}}}";
+
+	private static JsonNode readSchema(String schema) throws IOException {
+		return new JsonNodeReader().fromReader(new StringReader(schema));
+	}
+
+	@Test
+	public void compileDefinesClasses() throws Exception {
+		RuntimeClassCompiler compiler = new RuntimeClassCompiler(10);
+		CompiledSchema compiledSchema = compiler.compile(readSchema(PERSON_SCHEMA), new ClassName("com.example.runtime", "Person"));
+
+		Class<?> personClass = compiledSchema.getRootClass();
+		assertEquals("com.example.runtime.Person", personClass.getName());
+		assertSame(compiledSchema.getClassLoader(), personClass.getClassLoader());
+
+		Object person = personClass.newInstance();
+		personClass.getMethod("setName", String.class).invoke(person, "Jane");
+		assertEquals("Jane", personClass.getMethod("getName").invoke(person));
+		assertEquals(2, compiledSchema.getClassNames().size());
+	}
+
+	@Test
+	public void compileSameSchemaReturnsCachedClasses() throws CodeGenerationException, IOException {
+		RuntimeClassCompiler compiler = new RuntimeClassCompiler(10);
+		ClassName className = new ClassName("com.example.runtime", "Person");
+		CompiledSchema compiledSchema = compiler.compile(readSchema(PERSON_SCHEMA), className);
+		assertSame(compiledSchema, compiler.compile(readSchema(PERSON_SCHEMA), className));
+		assertEquals(1, compiler.size());
+	}
+
+	@Test
+	public void compileEvictsLeastRecentlyUsed() throws CodeGenerationException, IOException {
+		RuntimeClassCompiler compiler = new RuntimeClassCompiler(1);
+		ClassName className = new ClassName("com.example.runtime", "Person");
+		CompiledSchema compiledSchema = compiler.compile(readSchema(PERSON_SCHEMA), className);
+		compiler.compile(readSchema("{\"type\": \"object\", \"properties\": {\"id\": {\"type\": \"integer\"}}}"), className);
+		assertEquals(1, compiler.size());
+
+		CompiledSchema recompiledSchema = compiler.compile(readSchema(PERSON_SCHEMA), className);
+		assertNotSame(compiledSchema, recompiledSchema);
+		assertEquals(compiledSchema.getHash(), recompiledSchema.getHash());
+	}
+
+	@Test
+	public void compileInvalidSchemaThrowsCodeGenerationException() throws IOException {
+		RuntimeClassCompiler compiler = new RuntimeClassCompiler(10);
+		try {
+			compiler.compile(readSchema("{\"type\": \"object\", \"properties\": {\"other\": {\"$ref\": \"other.json#\"}}}"), new ClassName("com.example.runtime", "Broken"));
+			fail("Expected a CodeGenerationException");
+		} catch (CodeGenerationException e) {
+			// Expected
+		}
+		assertEquals(0, compiler.size());
+	}
+}